@@ -0,0 +1,33 @@
+package com.mojang.authlib;
+
+import com.mojang.authlib.properties.PropertyMap;
+
+import java.util.UUID;
+
+/**
+ * Minimal stand-in of the authlib class used by skull textures, authlib is not part of spigot-api
+ */
+public class GameProfile {
+
+    private final UUID id;
+    private final String name;
+    private final PropertyMap properties = new PropertyMap();
+
+    public GameProfile(UUID id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public UUID getId() {
+        return this.id;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public PropertyMap getProperties() {
+        return this.properties;
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.mojang.authlib.properties;
+
+/**
+ * Minimal stand-in of the authlib class used by skull textures, authlib is not part of spigot-api
+ */
+public class Property {
+
+    private final String name;
+    private final String value;
+
+    public Property(String name, String value) {
+        this.name = name;
+        this.value = value;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public String getValue() {
+        return this.value;
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.mojang.authlib.properties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal stand-in of the authlib multimap used by skull textures, authlib is not part of spigot-api
+ */
+public class PropertyMap {
+
+    private final Map<Object, List<Object>> properties = new HashMap<>();
+
+    public boolean put(Object key, Object value) {
+        return this.properties.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+    }
+
+}
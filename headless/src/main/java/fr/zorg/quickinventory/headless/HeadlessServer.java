@@ -0,0 +1,602 @@
+package fr.zorg.quickinventory.headless;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.Warning;
+import org.bukkit.World;
+import org.bukkit.command.SimpleCommandMap;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.SimplePluginManager;
+import org.bukkit.plugin.SimpleServicesManager;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
+import org.bukkit.plugin.messaging.StandardMessenger;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A stand-in for the server, just enough of the Bukkit API for QuickInventory to run headless:
+ * array-backed inventories, an item factory creating {@link StubItemMeta}, players opening and closing inventories,
+ * a scheduler advanced by {@link HeadlessServer#tick()}, and the Bukkit plugin and services managers dispatching the events
+ */
+public final class HeadlessServer {
+
+    private static final Map<UUID, Player> onlinePlayers = new ConcurrentHashMap<>();
+    private static final List<ScheduledTask> tasks = new ArrayList<>();
+
+    /**
+     * Tasks scheduled since the last tick, possibly from other threads
+     */
+    private static final Queue<ScheduledTask> pendingTasks = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger taskIds = new AtomicInteger();
+
+    private static Server server;
+    private static SimplePluginManager pluginManager;
+    private static SimpleServicesManager servicesManager;
+    private static World world;
+    private static Thread mainThread;
+    private static long currentTick;
+
+    private HeadlessServer() {
+    }
+
+    /**
+     * Install the headless server as the Bukkit server, once per JVM. The installing thread is the server thread
+     */
+    public static synchronized void install() {
+        if (server != null)
+            return;
+
+        final ItemFactory itemFactory = proxy(ItemFactory.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getItemMeta":
+                    return new StubItemMeta();
+                case "isApplicable":
+                    return true;
+                case "asMetaFor":
+                    return ((ItemMeta) args[0]).clone();
+                case "equals":
+                    return args.length == 2 ? Objects.equals(args[0], args[1]) : proxy == args[0];
+                default:
+                    return defaultValue(proxy, method, args);
+            }
+        });
+        final BukkitScheduler scheduler = proxy(BukkitScheduler.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "runTask":
+                    return schedule((Plugin) args[0], (Runnable) args[1], 0L, -1L);
+                case "runTaskLater":
+                    return schedule((Plugin) args[0], (Runnable) args[1], (Long) args[2], -1L);
+                case "runTaskTimer":
+                    return schedule((Plugin) args[0], (Runnable) args[1], (Long) args[2], (Long) args[3]);
+                case "cancelTask":
+                    cancelTasks(task -> task.id == (Integer) args[0]);
+                    return null;
+                case "cancelTasks":
+                    cancelTasks(task -> task.plugin == args[0]);
+                    return null;
+                case "cancelAllTasks":
+                    cancelTasks(task -> true);
+                    return null;
+                default:
+                    return defaultValue(proxy, method, args);
+            }
+        });
+        final StandardMessenger messenger = new StandardMessenger();
+        final Logger logger = Logger.getLogger("HeadlessServer");
+
+        world = proxy(World.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getName":
+                    return "world";
+                case "getPlayers":
+                    List<Player> players = new ArrayList<>(onlinePlayers.values());
+                    players.removeIf(player -> player.getWorld() != proxy);
+                    return players;
+                default:
+                    return defaultValue(proxy, method, args);
+            }
+        });
+        server = proxy(Server.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getItemFactory":
+                    return itemFactory;
+                case "getScheduler":
+                    return scheduler;
+                case "getPluginManager":
+                    return pluginManager;
+                case "getServicesManager":
+                    return servicesManager;
+                case "getMessenger":
+                    return messenger;
+                case "getWarningState":
+                    return Warning.WarningState.DEFAULT;
+                case "createInventory":
+                    InventoryType type = args[1] instanceof InventoryType ? (InventoryType) args[1] : InventoryType.CHEST;
+                    int size = args[1] instanceof Integer ? (Integer) args[1] : type.getDefaultSize();
+                    String title = args.length > 2 ? (String) args[2] : type.getDefaultTitle();
+                    return inventory((InventoryHolder) args[0], type, size, title);
+                case "getPlayer":
+                    return args[0] instanceof UUID ? onlinePlayers.get(args[0]) : null;
+                case "getOnlinePlayers":
+                    return Collections.unmodifiableCollection(new ArrayList<>(onlinePlayers.values()));
+                case "getWorlds":
+                    return Collections.singletonList(world);
+                case "getWorld":
+                    return "world".equals(args[0]) ? world : null;
+                case "getLogger":
+                    return logger;
+                case "getName":
+                    return "HeadlessServer";
+                case "getVersion":
+                case "getBukkitVersion":
+                    return "1.8-R0.1-SNAPSHOT";
+                case "isPrimaryThread":
+                    return Thread.currentThread() == mainThread;
+                default:
+                    return defaultValue(proxy, method, args);
+            }
+        });
+        pluginManager = new SimplePluginManager(server, new SimpleCommandMap(server));
+        servicesManager = new SimpleServicesManager();
+        mainThread = Thread.currentThread();
+        Bukkit.setServer(server);
+    }
+
+    /**
+     * Create an enabled plugin, whose events are dispatched by the plugin manager
+     *
+     * @param name The name of the plugin
+     * @return A new {@link JavaPlugin}
+     */
+    public static JavaPlugin plugin(String name) {
+        HeadlessPlugin plugin = new HeadlessPlugin(name);
+        plugin.enable();
+        return plugin;
+    }
+
+    /**
+     * Disable a plugin like the server does: {@link org.bukkit.event.server.PluginDisableEvent}, then its tasks, services and listeners are removed
+     *
+     * @param plugin The plugin to disable
+     */
+    public static void disable(Plugin plugin) {
+        pluginManager.disablePlugin(plugin);
+    }
+
+    /**
+     * Run the tasks due on the next tick, on the calling thread
+     */
+    public static void tick() {
+        currentTick++;
+        for (ScheduledTask task; (task = pendingTasks.poll()) != null; ) {
+            tasks.add(task);
+        }
+        for (Iterator<ScheduledTask> iterator = tasks.iterator(); iterator.hasNext(); ) {
+            ScheduledTask task = iterator.next();
+            if (task.cancelled) {
+                iterator.remove();
+                continue;
+            }
+            if (task.next > currentTick)
+                continue;
+            try {
+                task.runnable.run();
+            } catch (RuntimeException e) {
+                server.getLogger().log(Level.WARNING, "Task #" + task.id + " of " + task.plugin.getName() + " failed", e);
+            }
+            if (task.period < 0 || task.cancelled)
+                iterator.remove();
+            else
+                task.next = currentTick + Math.max(1L, task.period);
+        }
+    }
+
+    public static long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Get the amount of scheduled tasks not cancelled yet
+     *
+     * @return The amount of tasks
+     */
+    public static int getScheduledTasks() {
+        int count = 0;
+        for (ScheduledTask task : tasks) {
+            if (!task.cancelled)
+                count++;
+        }
+        return count + pendingTasks.size();
+    }
+
+    /**
+     * Fire an event through the plugin manager
+     *
+     * @param event The event
+     * @param <T>   The type of the event
+     * @return The event
+     */
+    public static <T extends Event> T callEvent(T event) {
+        pluginManager.callEvent(event);
+        return event;
+    }
+
+    /**
+     * Create an array-backed {@link Inventory}, a {@link PlayerInventory} for {@link InventoryType#PLAYER}
+     *
+     * @param holder The holder of the inventory
+     * @param type   The type of the inventory
+     * @param size   The amount of slots
+     * @param title  The title of the inventory
+     * @return A new {@link Inventory}
+     */
+    public static Inventory inventory(InventoryHolder holder, InventoryType type, int size, String title) {
+        StubInventory handler = new StubInventory(holder, type, size, title);
+        return type == InventoryType.PLAYER ? proxy(PlayerInventory.class, handler) : proxy(Inventory.class, handler);
+    }
+
+    /**
+     * Create an online {@link Player}. Opening an inventory closes the previous one with an {@link InventoryCloseEvent}
+     * and every other call but its identity is ignored
+     *
+     * @param name The name of the player
+     * @return A new {@link Player}
+     */
+    public static Player player(String name) {
+        HeadlessPlayer handler = new HeadlessPlayer(name);
+        Player player = proxy(Player.class, handler);
+        handler.init(player);
+        onlinePlayers.put(handler.id, player);
+        return player;
+    }
+
+    /**
+     * Disconnect a player like the server does: its inventory is closed, then {@link PlayerQuitEvent} is fired
+     *
+     * @param player The player
+     */
+    public static void quit(Player player) {
+        player.closeInventory();
+        callEvent(new PlayerQuitEvent(player, player.getName() + " left the game"));
+        onlinePlayers.remove(player.getUniqueId());
+    }
+
+    /**
+     * Close the inventory of a player without firing {@link InventoryCloseEvent}, like a kick during a teleport
+     *
+     * @param player The player
+     */
+    public static void closeSilently(Player player) {
+        handler(player).close(false);
+    }
+
+    /**
+     * Create a left click on a slot of the top inventory
+     *
+     * @param top    The clicked inventory
+     * @param player The player clicking
+     * @param slot   The clicked slot
+     * @return A new {@link InventoryClickEvent}
+     */
+    public static InventoryClickEvent click(Inventory top, Player player, int slot) {
+        return new InventoryClickEvent(new View(top, inventory(player, InventoryType.PLAYER, 36, "Inventory"), player),
+                InventoryType.SlotType.CONTAINER, slot, ClickType.LEFT, InventoryAction.PICKUP_ALL);
+    }
+
+    /**
+     * Create a click in the inventory opened by a player
+     *
+     * @param player  The player clicking
+     * @param rawSlot The clicked slot, the slots of the player inventory follow the ones of the top inventory
+     * @param click   The type of click
+     * @param action  The resulting action
+     * @return A new {@link InventoryClickEvent}
+     */
+    public static InventoryClickEvent click(Player player, int rawSlot, ClickType click, InventoryAction action) {
+        return new InventoryClickEvent(player.getOpenInventory(), InventoryType.SlotType.CONTAINER, rawSlot, click, action);
+    }
+
+    private static HeadlessPlayer handler(Player player) {
+        return (HeadlessPlayer) Proxy.getInvocationHandler(player);
+    }
+
+    private static BukkitTask schedule(Plugin plugin, Runnable runnable, long delay, long period) {
+        ScheduledTask task = new ScheduledTask(taskIds.incrementAndGet(), plugin, runnable, currentTick + Math.max(1L, delay), period);
+        pendingTasks.add(task);
+        return proxy(BukkitTask.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getTaskId":
+                    return task.id;
+                case "getOwner":
+                    return task.plugin;
+                case "isSync":
+                    return true;
+                case "cancel":
+                    task.cancelled = true;
+                    return null;
+                default:
+                    return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    private static void cancelTasks(Predicate<ScheduledTask> filter) {
+        for (ScheduledTask task : tasks) {
+            if (filter.test(task))
+                task.cancelled = true;
+        }
+        for (ScheduledTask task : pendingTasks) {
+            if (filter.test(task))
+                task.cancelled = true;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(HeadlessServer.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object defaultValue(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return method.getDeclaringClass().getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+            default:
+                break;
+        }
+        Class<?> returnType = method.getReturnType();
+        if (returnType == boolean.class)
+            return false;
+        if (returnType == int.class || returnType == short.class || returnType == byte.class || returnType == char.class)
+            return 0;
+        if (returnType == long.class)
+            return 0L;
+        if (returnType == float.class || returnType == double.class)
+            return 0D;
+        if (returnType == List.class || returnType == Collection.class)
+            return Collections.emptyList();
+        return null;
+    }
+
+    /**
+     * A plugin built with the initialization constructor of {@link JavaPlugin}, outside of a plugin class loader
+     */
+    private static final class HeadlessPlugin extends JavaPlugin {
+
+        private HeadlessPlugin(String name) {
+            super(new JavaPluginLoader(server), new PluginDescriptionFile(name, "1.0", HeadlessPlugin.class.getName()),
+                    new File("build/headless", name), new File("build/headless", name + ".jar"));
+        }
+
+        private void enable() {
+            this.setEnabled(true);
+        }
+
+    }
+
+    private static final class ScheduledTask {
+
+        private final int id;
+        private final Plugin plugin;
+        private final Runnable runnable;
+        private final long period;
+        private long next;
+        private volatile boolean cancelled;
+
+        private ScheduledTask(int id, Plugin plugin, Runnable runnable, long next, long period) {
+            this.id = id;
+            this.plugin = plugin;
+            this.runnable = runnable;
+            this.next = next;
+            this.period = period;
+        }
+
+    }
+
+    private static final class View extends InventoryView {
+
+        private final Inventory top;
+        private final Inventory bottom;
+        private final HumanEntity player;
+
+        private View(Inventory top, Inventory bottom, HumanEntity player) {
+            this.top = top;
+            this.bottom = bottom;
+            this.player = player;
+        }
+
+        @Override
+        public Inventory getTopInventory() {
+            return this.top;
+        }
+
+        @Override
+        public Inventory getBottomInventory() {
+            return this.bottom;
+        }
+
+        @Override
+        public HumanEntity getPlayer() {
+            return this.player;
+        }
+
+        @Override
+        public InventoryType getType() {
+            return this.top.getType();
+        }
+
+    }
+
+    private static final class HeadlessPlayer implements InvocationHandler {
+
+        private final UUID id;
+        private final String name;
+        private Player player;
+        private Inventory inventory;
+        private View defaultView;
+        private View view;
+
+        private HeadlessPlayer(String name) {
+            this.id = UUID.nameUUIDFromBytes(name.getBytes());
+            this.name = name;
+        }
+
+        private void init(Player player) {
+            this.player = player;
+            this.inventory = inventory(player, InventoryType.PLAYER, 36, "Inventory");
+            this.defaultView = new View(inventory(player, InventoryType.CRAFTING, 5, "Crafting"), this.inventory, player);
+            this.view = this.defaultView;
+        }
+
+        private InventoryView open(Inventory top) {
+            this.close(true);
+            this.view = new View(top, this.inventory, this.player);
+            top.getViewers().add(this.player);
+            return this.view;
+        }
+
+        private void close(boolean fireEvent) {
+            if (this.view == this.defaultView)
+                return;
+            if (fireEvent)
+                callEvent(new InventoryCloseEvent(this.view));
+            this.view.getTopInventory().getViewers().remove(this.player);
+            this.view = this.defaultView;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "getUniqueId":
+                    return this.id;
+                case "getName":
+                case "getDisplayName":
+                    return this.name;
+                case "isOnline":
+                    return onlinePlayers.containsKey(this.id);
+                case "getWorld":
+                    return world;
+                case "getInventory":
+                    return this.inventory;
+                case "getOpenInventory":
+                    return this.view;
+                case "openInventory":
+                    return args[0] instanceof Inventory ? this.open((Inventory) args[0]) : null;
+                case "closeInventory":
+                    this.close(true);
+                    return null;
+                default:
+                    return defaultValue(proxy, method, args);
+            }
+        }
+
+    }
+
+    private static final class StubInventory implements InvocationHandler {
+
+        private final InventoryHolder holder;
+        private final InventoryType type;
+        private final String title;
+        private final ItemStack[] contents;
+        private final List<HumanEntity> viewers = new ArrayList<>();
+
+        private StubInventory(InventoryHolder holder, InventoryType type, int size, String title) {
+            this.holder = holder;
+            this.type = type;
+            this.title = title;
+            this.contents = new ItemStack[size];
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "getSize":
+                    return this.contents.length;
+                case "getMaxStackSize":
+                    return 64;
+                case "getName":
+                case "getTitle":
+                    return this.title;
+                case "getType":
+                    return this.type;
+                case "getHolder":
+                    return this.holder;
+                case "getViewers":
+                    return this.viewers;
+                case "getItem":
+                    return this.contents[(Integer) args[0]];
+                case "setItem":
+                    this.contents[(Integer) args[0]] = copy((ItemStack) args[1]);
+                    return null;
+                case "getContents":
+                    ItemStack[] copy = new ItemStack[this.contents.length];
+                    for (int i = 0; i < copy.length; i++) {
+                        copy[i] = copy(this.contents[i]);
+                    }
+                    return copy;
+                case "setContents":
+                    ItemStack[] items = (ItemStack[]) args[0];
+                    for (int i = 0; i < this.contents.length; i++) {
+                        this.contents[i] = i < items.length ? copy(items[i]) : null;
+                    }
+                    return null;
+                case "clear":
+                    if (args == null)
+                        java.util.Arrays.fill(this.contents, null);
+                    else
+                        this.contents[(Integer) args[0]] = null;
+                    return null;
+                default:
+                    return defaultValue(proxy, method, args);
+            }
+        }
+
+        // The server keeps its own copy of every item, like CraftInventory does
+        private static ItemStack copy(ItemStack item) {
+            return item == null ? null : item.clone();
+        }
+
+    }
+
+}
@@ -0,0 +1,194 @@
+package fr.zorg.quickinventory.headless;
+
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.meta.SkullMeta;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A plain {@link SkullMeta} used for every material by {@link HeadlessServer}.
+ * Its "profile" field mirrors the server skull meta so skull textures can be applied to it
+ */
+public class StubItemMeta implements SkullMeta {
+
+    private String displayName;
+    private List<String> lore;
+    private Map<Enchantment, Integer> enchants = new LinkedHashMap<>();
+    private Set<ItemFlag> flags = EnumSet.noneOf(ItemFlag.class);
+    private String owner;
+    private Object profile;
+    private boolean unbreakable;
+
+    @Override
+    public boolean hasDisplayName() {
+        return this.displayName != null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return this.displayName;
+    }
+
+    @Override
+    public void setDisplayName(String name) {
+        this.displayName = name;
+    }
+
+    @Override
+    public boolean hasLore() {
+        return this.lore != null && !this.lore.isEmpty();
+    }
+
+    @Override
+    public List<String> getLore() {
+        return this.lore == null ? null : new ArrayList<>(this.lore);
+    }
+
+    @Override
+    public void setLore(List<String> lore) {
+        this.lore = lore == null ? null : new ArrayList<>(lore);
+    }
+
+    @Override
+    public boolean hasEnchants() {
+        return !this.enchants.isEmpty();
+    }
+
+    @Override
+    public boolean hasEnchant(Enchantment enchantment) {
+        return this.enchants.containsKey(enchantment);
+    }
+
+    @Override
+    public int getEnchantLevel(Enchantment enchantment) {
+        Integer level = this.enchants.get(enchantment);
+        return level == null ? 0 : level;
+    }
+
+    @Override
+    public Map<Enchantment, Integer> getEnchants() {
+        return Collections.unmodifiableMap(this.enchants);
+    }
+
+    @Override
+    public boolean addEnchant(Enchantment enchantment, int level, boolean ignoreLevelRestriction) {
+        Integer previous = this.enchants.put(enchantment, level);
+        return previous == null || previous != level;
+    }
+
+    @Override
+    public boolean removeEnchant(Enchantment enchantment) {
+        return this.enchants.remove(enchantment) != null;
+    }
+
+    @Override
+    public boolean hasConflictingEnchant(Enchantment enchantment) {
+        return false;
+    }
+
+    @Override
+    public void addItemFlags(ItemFlag... itemFlags) {
+        Collections.addAll(this.flags, itemFlags);
+    }
+
+    @Override
+    public void removeItemFlags(ItemFlag... itemFlags) {
+        for (ItemFlag itemFlag : itemFlags) {
+            this.flags.remove(itemFlag);
+        }
+    }
+
+    @Override
+    public Set<ItemFlag> getItemFlags() {
+        return Collections.unmodifiableSet(this.flags);
+    }
+
+    @Override
+    public boolean hasItemFlag(ItemFlag flag) {
+        return this.flags.contains(flag);
+    }
+
+    @Override
+    public String getOwner() {
+        return this.owner;
+    }
+
+    @Override
+    public boolean hasOwner() {
+        return this.owner != null;
+    }
+
+    @Override
+    public boolean setOwner(String owner) {
+        this.owner = owner;
+        return true;
+    }
+
+    @Override
+    public Spigot spigot() {
+        return new Spigot() {
+            @Override
+            public void setUnbreakable(boolean unbreakable) {
+                StubItemMeta.this.unbreakable = unbreakable;
+            }
+
+            @Override
+            public boolean isUnbreakable() {
+                return StubItemMeta.this.unbreakable;
+            }
+        };
+    }
+
+    @Override
+    public Map<String, Object> serialize() {
+        Map<String, Object> serialized = new LinkedHashMap<>();
+        if (this.displayName != null)
+            serialized.put("display-name", this.displayName);
+        if (this.lore != null)
+            serialized.put("lore", this.lore);
+        return serialized;
+    }
+
+    @Override
+    public StubItemMeta clone() {
+        try {
+            StubItemMeta clone = (StubItemMeta) super.clone();
+            clone.lore = this.lore == null ? null : new ArrayList<>(this.lore);
+            clone.enchants = new LinkedHashMap<>(this.enchants);
+            clone.flags = this.flags.isEmpty() ? EnumSet.noneOf(ItemFlag.class) : EnumSet.copyOf(this.flags);
+            return clone;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof StubItemMeta))
+            return false;
+        StubItemMeta other = (StubItemMeta) o;
+        return this.unbreakable == other.unbreakable
+                && Objects.equals(this.displayName, other.displayName)
+                && Objects.equals(this.lore, other.lore)
+                && this.enchants.equals(other.enchants)
+                && this.flags.equals(other.flags)
+                && Objects.equals(this.owner, other.owner)
+                && this.profile == other.profile;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.displayName, this.lore, this.enchants, this.flags, this.owner, System.identityHashCode(this.profile), this.unbreakable);
+    }
+
+}
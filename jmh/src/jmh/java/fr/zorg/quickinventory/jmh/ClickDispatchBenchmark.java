@@ -0,0 +1,75 @@
+package fr.zorg.quickinventory.jmh;
+
+import fr.zorg.quickinventory.QuickInventory;
+import fr.zorg.quickinventory.QuickInventoryManager;
+import fr.zorg.quickinventory.QuickItem;
+import fr.zorg.quickinventory.headless.HeadlessServer;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link QuickInventoryManager#onClick(InventoryClickEvent)} with many opened inventories
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ClickDispatchBenchmark {
+
+    @Param({"10", "1000"})
+    public int inventories;
+
+    private final QuickInventoryManager manager = new QuickInventoryManager();
+    private InventoryClickEvent[] actionClicks;
+    private InventoryClickEvent[] emptyClicks;
+    private int next;
+    private long handled;
+
+    @Setup
+    public void setup() {
+        HeadlessServer.install();
+        this.actionClicks = new InventoryClickEvent[this.inventories];
+        this.emptyClicks = new InventoryClickEvent[this.inventories];
+        for (int i = 0; i < this.inventories; i++) {
+            Player player = HeadlessServer.player("player" + i);
+            QuickInventory quickInventory = new QuickInventory("Benchmark", 6)
+                    .setBorders(QuickItem.of(Material.STAINED_GLASS_PANE).durability(14).name(" "))
+                    .setSlot(22, QuickItem.of(Material.APPLE).name("Action"), inventoryClickEvent -> this.handled++);
+            quickInventory.open(player);
+            this.actionClicks[i] = HeadlessServer.click(quickInventory.getInventory(), player, 22);
+            this.emptyClicks[i] = HeadlessServer.click(quickInventory.getInventory(), player, 31);
+        }
+    }
+
+    @Benchmark
+    public void clickWithAction(Blackhole blackhole) {
+        InventoryClickEvent event = this.actionClicks[this.nextIndex()];
+        this.manager.onClick(event);
+        blackhole.consume(event.isCancelled());
+    }
+
+    @Benchmark
+    public void clickWithoutAction(Blackhole blackhole) {
+        InventoryClickEvent event = this.emptyClicks[this.nextIndex()];
+        this.manager.onClick(event);
+        blackhole.consume(event.isCancelled());
+    }
+
+    private int nextIndex() {
+        int index = this.next;
+        this.next = index + 1 == this.inventories ? 0 : index + 1;
+        return index;
+    }
+
+}
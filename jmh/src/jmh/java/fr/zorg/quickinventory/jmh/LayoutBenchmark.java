@@ -0,0 +1,54 @@
+package fr.zorg.quickinventory.jmh;
+
+import fr.zorg.quickinventory.QuickInventory;
+import fr.zorg.quickinventory.QuickItem;
+import fr.zorg.quickinventory.headless.HeadlessServer;
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link QuickInventory#setBorders(QuickItem)} and {@link QuickInventory#setCorners(QuickItem)} for every chest size
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LayoutBenchmark {
+
+    @Param({"1", "2", "3", "4", "5", "6"})
+    public int rows;
+
+    private QuickInventory quickInventory;
+    private QuickItem pane;
+
+    @Setup
+    public void setup() {
+        HeadlessServer.install();
+        this.quickInventory = new QuickInventory("Benchmark", this.rows);
+        this.pane = QuickItem.of(Material.STAINED_GLASS_PANE).durability(14).name(" ");
+    }
+
+    @Benchmark
+    public QuickInventory setBorders() {
+        return this.quickInventory.setBorders(this.pane);
+    }
+
+    @Benchmark
+    public QuickInventory setCorners() {
+        return this.quickInventory.setCorners(this.pane);
+    }
+
+    @Benchmark
+    public QuickInventory editBorders() {
+        return this.quickInventory.edit(transaction -> transaction.setBorders(this.pane));
+    }
+
+}
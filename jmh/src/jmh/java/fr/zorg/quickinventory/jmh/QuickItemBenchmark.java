@@ -0,0 +1,67 @@
+package fr.zorg.quickinventory.jmh;
+
+import fr.zorg.quickinventory.QuickItem;
+import fr.zorg.quickinventory.headless.HeadlessServer;
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link QuickItem} build chains
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QuickItemBenchmark {
+
+    private QuickItem reused;
+    private QuickItem frozen;
+
+    @Setup
+    public void setup() {
+        HeadlessServer.install();
+        this.reused = chain();
+        this.frozen = chain().freeze();
+    }
+
+    @Benchmark
+    public ItemStack buildChain() {
+        return chain().build();
+    }
+
+    @Benchmark
+    public ItemStack rebuild() {
+        return this.reused.build();
+    }
+
+    @Benchmark
+    public ItemStack buildFrozen() {
+        return this.frozen.build();
+    }
+
+    @Benchmark
+    public QuickItem intern() {
+        return chain().intern();
+    }
+
+    private static QuickItem chain() {
+        return QuickItem.of(Material.STAINED_GLASS_PANE)
+                .amount(2)
+                .durability(14)
+                .name("§cBenchmark")
+                .lore("§7First line", "§7Second line")
+                .enchant(Enchantment.DURABILITY, 1)
+                .addItemFlag(ItemFlag.HIDE_ENCHANTS);
+    }
+
+}
@@ -0,0 +1,45 @@
+package fr.zorg.quickinventory.jmh;
+
+import fr.zorg.quickinventory.QuickItem;
+import fr.zorg.quickinventory.SkullTextures;
+import fr.zorg.quickinventory.headless.HeadlessServer;
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link QuickItem#setBase64SkullValue(String)} with cached and uncached textures
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SkullBenchmark {
+
+    private static final String TEXTURE = "eyJ0ZXh0dXJlcyI6eyJTS0lOIjp7InVybCI6Imh0dHA6Ly90ZXh0dXJlcy5taW5lY3JhZnQubmV0L3RleHR1cmUvYmVuY2htYXJrIn19fQ==";
+
+    private long uniqueTexture;
+
+    @Setup
+    public void setup() {
+        HeadlessServer.install();
+        SkullTextures.clearCache();
+    }
+
+    @Benchmark
+    public QuickItem cachedTexture() {
+        return QuickItem.of(Material.SKULL_ITEM).durability(3).setBase64SkullValue(TEXTURE);
+    }
+
+    @Benchmark
+    public QuickItem uniqueTexture() {
+        return QuickItem.of(Material.SKULL_ITEM).durability(3).setBase64SkullValue(TEXTURE + this.uniqueTexture++);
+    }
+
+}
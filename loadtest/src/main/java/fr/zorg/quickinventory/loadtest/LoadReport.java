@@ -0,0 +1,174 @@
+package fr.zorg.quickinventory.loadtest;
+
+import fr.zorg.quickinventory.LatencyHistogram;
+import fr.zorg.quickinventory.QuickInventory;
+
+import java.io.PrintStream;
+import java.util.Map;
+
+/**
+ * What a {@link LoadSimulation} measured: the events it drove, the time and memory each tick of the server thread took,
+ * and what QuickInventory still tracked once every player was gone
+ */
+final class LoadReport {
+
+    private final LatencyHistogram tickTimes = new LatencyHistogram();
+    private final long tickBudget;
+
+    private long opens;
+    private long clicks;
+    private long closes;
+    private long silentCloses;
+    private long quits;
+    private long ticksOverBudget;
+
+    /**
+     * Menus lost without their close event since the start, warm-up included, each must be found as a suspected leak
+     */
+    private long lostMenus;
+    private long serverThreadNanos;
+    private long allocatedBytes = -1L;
+
+    private int leftoverSessions;
+    private int leftoverInventories;
+    private int leftoverViewers;
+    private Map<Class<? extends QuickInventory>, Long> leaks;
+    private int sessionsAfterDisable;
+    private int tasksAfterDisable;
+
+    LoadReport(long tickBudget) {
+        this.tickBudget = tickBudget;
+    }
+
+    void open() {
+        this.opens++;
+    }
+
+    void click() {
+        this.clicks++;
+    }
+
+    void close() {
+        this.closes++;
+    }
+
+    void silentClose() {
+        this.silentCloses++;
+        this.lostMenus++;
+    }
+
+    /**
+     * Forget the events and ticks of the warm-up
+     */
+    void startMeasuring() {
+        this.opens = 0;
+        this.clicks = 0;
+        this.closes = 0;
+        this.silentCloses = 0;
+        this.quits = 0;
+        this.ticksOverBudget = 0;
+        this.serverThreadNanos = 0;
+        this.tickTimes.reset();
+    }
+
+    void quit() {
+        this.quits++;
+    }
+
+    /**
+     * Record the time the server thread spent on a tick
+     *
+     * @param nanos The duration of the tick
+     */
+    void tick(long nanos) {
+        this.tickTimes.record(nanos);
+        this.serverThreadNanos += nanos;
+        if (nanos > this.tickBudget)
+            this.ticksOverBudget++;
+    }
+
+    /**
+     * Set the bytes allocated by the server thread during the measured ticks
+     *
+     * @param allocatedBytes The allocated bytes, -1 if the JVM does not report them
+     */
+    void setAllocatedBytes(long allocatedBytes) {
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    /**
+     * Set what was still tracked once every player closed its menu and the periodic sweep ran
+     *
+     * @param sessions    The tracked sessions
+     * @param inventories The tracked inventories
+     * @param viewers     The viewers still counted on the shared menu
+     * @param leaks       The suspected leaks by {@link QuickInventory} subclass
+     */
+    void setLeftovers(int sessions, int inventories, int viewers, Map<Class<? extends QuickInventory>, Long> leaks) {
+        this.leftoverSessions = sessions;
+        this.leftoverInventories = inventories;
+        this.leftoverViewers = viewers;
+        this.leaks = leaks;
+    }
+
+    /**
+     * Set what was still tracked once the plugin was disabled
+     *
+     * @param sessions The tracked sessions
+     * @param tasks    The scheduled tasks
+     */
+    void setAfterDisable(int sessions, int tasks) {
+        this.sessionsAfterDisable = sessions;
+        this.tasksAfterDisable = tasks;
+    }
+
+    long getEvents() {
+        return this.opens + this.clicks + this.closes + this.silentCloses + this.quits;
+    }
+
+    long getLeakCount() {
+        return this.leaks.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Check that nothing outlived the players: no session, no viewer, and exactly one suspected leak per menu lost without its close event
+     *
+     * @return True if QuickInventory cleaned up after every player
+     */
+    boolean isClean() {
+        return this.leftoverSessions == 0 && this.leftoverInventories == 0 && this.leftoverViewers == 0
+                && this.getLeakCount() == this.lostMenus && this.sessionsAfterDisable == 0 && this.tasksAfterDisable == 0;
+    }
+
+    void print(PrintStream out, int players, long ticks, long seed) {
+        double seconds = this.serverThreadNanos / 1_000_000_000D;
+        out.printf("QuickInventory load simulation: %d players, %d ticks, seed %d%n", players, ticks, seed);
+        out.printf("Events: %d (opens=%d clicks=%d closes=%d silentCloses=%d quits=%d)%n",
+                this.getEvents(), this.opens, this.clicks, this.closes, this.silentCloses, this.quits);
+        out.printf("Throughput: %.0f events/s of server thread time (%.2fs)%n", this.getEvents() / seconds, seconds);
+        out.printf("Tick time: mean=%s p50=%s p99=%s p99.9=%s max=%s, %d ticks over %s%n",
+                formatNanos((long) this.tickTimes.getMean()), formatNanos(this.tickTimes.getPercentile(50)),
+                formatNanos(this.tickTimes.getPercentile(99)), formatNanos(this.tickTimes.getPercentile(99.9)),
+                formatNanos(this.tickTimes.getMax()), this.ticksOverBudget, formatNanos(this.tickBudget));
+        if (this.allocatedBytes < 0)
+            out.println("Allocation: not reported by this JVM");
+        else
+            out.printf("Allocation: %.1f MB/s, %d bytes/event on the server thread%n",
+                    this.allocatedBytes / seconds / (1024 * 1024), this.allocatedBytes / Math.max(1L, this.getEvents()));
+        out.printf("Leftovers: sessions=%d inventories=%d sharedMenuViewers=%d%n",
+                this.leftoverSessions, this.leftoverInventories, this.leftoverViewers);
+        out.printf("Suspected leaks: %d for %d menus lost without their close event%n", this.getLeakCount(), this.lostMenus);
+        for (Map.Entry<Class<? extends QuickInventory>, Long> entry : this.leaks.entrySet()) {
+            out.printf("  %s %d%n", entry.getKey().getName(), entry.getValue());
+        }
+        out.printf("After disable: sessions=%d tasks=%d%n", this.sessionsAfterDisable, this.tasksAfterDisable);
+        out.println(this.isClean() ? "Result: clean" : "Result: LEAKING");
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000_000L)
+            return String.format("%.1fus", nanos / 1_000D);
+        return String.format("%.2fms", nanos / 1_000_000D);
+    }
+
+}
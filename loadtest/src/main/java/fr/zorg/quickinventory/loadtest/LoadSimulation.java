@@ -0,0 +1,252 @@
+package fr.zorg.quickinventory.loadtest;
+
+import fr.zorg.quickinventory.PaginatedQuickInventory;
+import fr.zorg.quickinventory.QuickInventory;
+import fr.zorg.quickinventory.QuickInventoryManager;
+import fr.zorg.quickinventory.QuickItem;
+import fr.zorg.quickinventory.headless.HeadlessServer;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drives thousands of {@link SimulatedPlayer} through the menus of a typical plugin on a {@link HeadlessServer},
+ * every event going through the plugin manager and {@link QuickInventoryManager} like on a real server, then reports
+ * the throughput, the tick times, the allocation rate and what QuickInventory still tracks once the players are gone.
+ * Exits with 1 if anything leaked
+ * <pre>
+ * ./gradlew :loadtest:run --args="--players 2000 --ticks 6000 --seed 42"
+ * </pre>
+ */
+public final class LoadSimulation {
+
+    /**
+     * Ticks played before measuring, so the measured ticks run compiled code
+     */
+    private static final int WARMUP_TICKS = 600;
+
+    /**
+     * Idle ticks once every menu is closed, long enough for the periodic sweep of {@link QuickInventoryManager} to run
+     */
+    private static final int DRAIN_TICKS = 400;
+
+    private final int players;
+    private final int ticks;
+    private final long seed;
+    private final LoadReport report;
+    private final List<QuickItem> catalogItems = new ArrayList<>();
+    private final Map<UUID, LongAdder> balances = new ConcurrentHashMap<>();
+    private final QuickItem border;
+    private final QuickItem[] loading;
+    private final QuickInventory lobby;
+
+    private LoadSimulation(int players, int ticks, long seed, long tickBudgetMillis) {
+        this.players = players;
+        this.ticks = ticks;
+        this.seed = seed;
+        this.report = new LoadReport(TimeUnit.MILLISECONDS.toNanos(tickBudgetMillis));
+
+        // Items read their meta from the item factory of the server, so none can be built before it is installed
+        HeadlessServer.install();
+        this.border = QuickItem.of(Material.STAINED_GLASS_PANE).durability(15).name(" ");
+        this.loading = new QuickItem[]{
+                QuickItem.of(Material.STAINED_GLASS_PANE).durability(14).name("Loading."),
+                QuickItem.of(Material.STAINED_GLASS_PANE).durability(1).name("Loading.."),
+                QuickItem.of(Material.STAINED_GLASS_PANE).durability(5).name("Loading...")
+        };
+        for (int i = 0; i < 1000; i++) {
+            this.catalogItems.add(QuickItem.of(i % 2 == 0 ? Material.DIAMOND : Material.EMERALD)
+                    .name("§bItem #" + i).lore("§7Price: " + (i * 7 % 500) + " coins", "§eClick to buy"));
+        }
+        this.lobby = new QuickInventory("Lobby", 3)
+                .setBorders(this.border)
+                .setSlot(11, QuickItem.of(Material.DIAMOND).name("§bSkyblock"), e -> e.getWhoClicked().closeInventory())
+                .setSlot(15, QuickItem.of(Material.EMERALD).name("§aSurvival"), e -> e.getWhoClicked().closeInventory());
+    }
+
+    public static void main(String[] args) {
+        int players = 2000;
+        int ticks = 6000;
+        long seed = 42L;
+        long tickBudget = 50L;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--players":
+                    players = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--ticks":
+                    ticks = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[i + 1]);
+                    break;
+                case "--tick-budget":
+                    tickBudget = Long.parseLong(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i] + ", expected --players, --ticks, --seed or --tick-budget (ms)");
+            }
+        }
+
+        LoadSimulation simulation = new LoadSimulation(players, ticks, seed, tickBudget);
+        simulation.run();
+        simulation.report.print(System.out, players, ticks, seed);
+        System.exit(simulation.report.isClean() ? 0 : 1);
+    }
+
+    private void run() {
+        JavaPlugin plugin = HeadlessServer.plugin("QuickInventoryLoadTest");
+        QuickInventoryManager.register(plugin);
+        QuickInventoryManager.getMetrics().setEnabled(true);
+        QuickInventoryManager.getSessionCache().setEnabled(true);
+
+        Random seeds = new Random(this.seed);
+        List<SimulatedPlayer> simulatedPlayers = new ArrayList<>(this.players);
+        for (int i = 0; i < this.players; i++) {
+            simulatedPlayers.add(new SimulatedPlayer("player" + i, seeds.nextLong(), this));
+        }
+
+        for (int i = 0; i < WARMUP_TICKS; i++) {
+            this.tick(simulatedPlayers);
+        }
+        this.report.startMeasuring();
+
+        long allocatedBefore = allocatedBytes();
+        for (int i = 0; i < this.ticks; i++) {
+            long start = System.nanoTime();
+            this.tick(simulatedPlayers);
+            this.report.tick(System.nanoTime() - start);
+        }
+        long allocatedAfter = allocatedBytes();
+        this.report.setAllocatedBytes(allocatedBefore < 0 ? -1L : allocatedAfter - allocatedBefore);
+
+        for (SimulatedPlayer simulatedPlayer : simulatedPlayers) {
+            simulatedPlayer.close();
+        }
+        for (int i = 0; i < DRAIN_TICKS; i++) {
+            HeadlessServer.tick();
+        }
+        this.report.setLeftovers(QuickInventoryManager.getSessions().size(), QuickInventoryManager.getTrackedInventories(),
+                this.lobby.getViewerCount(), QuickInventoryManager.getLeaks());
+
+        HeadlessServer.disable(plugin);
+        this.report.setAfterDisable(QuickInventoryManager.getSessions().size(), HeadlessServer.getScheduledTasks());
+    }
+
+    private void tick(List<SimulatedPlayer> simulatedPlayers) {
+        HeadlessServer.tick();
+        long tick = HeadlessServer.getCurrentTick();
+        for (SimulatedPlayer simulatedPlayer : simulatedPlayers) {
+            simulatedPlayer.tick(tick);
+        }
+    }
+
+    LoadReport getReport() {
+        return this.report;
+    }
+
+    /**
+     * Open one of the menus of the simulated plugin
+     *
+     * @param player The player
+     * @param random The random of the player
+     */
+    void openMenu(Player player, Random random) {
+        switch (random.nextInt(6)) {
+            case 0:
+                this.shop().open(player);
+                break;
+            case 1:
+                this.catalog().open(player);
+                break;
+            case 2:
+                this.live().open(player);
+                break;
+            case 3:
+                this.lobby.open(player);
+                break;
+            case 4:
+                QuickInventoryManager.getSessionCache().open(player, "profile", () -> this.profile(player));
+                break;
+            default:
+                this.bank().open(player);
+                break;
+        }
+        this.report.open();
+    }
+
+    /**
+     * A menu built on every opening, with a sell slot accepting any item
+     */
+    private QuickInventory shop() {
+        QuickInventory shop = new QuickInventory("Shop", 6).setBorders(this.border);
+        for (int slot = 10; slot < 44; slot++) {
+            if (slot % 9 == 0 || slot % 9 == 8)
+                continue;
+            shop.setSlot(slot, this.catalogItems.get(slot), e -> e.getWhoClicked().getInventory().addItem(e.getCurrentItem()));
+        }
+        return shop.setClickCooldown(22, 250, TimeUnit.MILLISECONDS).setFree(49);
+    }
+
+    /**
+     * A menu paging through a large source, building only the displayed page
+     */
+    private QuickInventory catalog() {
+        return new PaginatedQuickInventory("Catalog", 6, this.catalogItems)
+                .setPreviousPageItem(45, QuickItem.of(Material.ARROW).name("Previous"))
+                .setNextPageItem(53, QuickItem.of(Material.ARROW).name("Next"))
+                .setElementAction((e, index) -> e.getWhoClicked().getInventory().addItem(this.catalogItems.get(index).build()));
+    }
+
+    /**
+     * A menu with a live slot and an animation, both advanced by the tick task of QuickInventory
+     */
+    private QuickInventory live() {
+        return new QuickInventory("Live", 3)
+                .setBorders(this.border)
+                .setLiveSlot(13, () -> QuickItem.of(Material.WATCH).name("§eUptime: " + HeadlessServer.getCurrentTick() / 20 + "s"), 20)
+                .setAnimation(11, 5, this.loading);
+    }
+
+    /**
+     * A menu kept in the session cache and reopened without being rebuilt
+     */
+    private QuickInventory profile(Player player) {
+        return new QuickInventory("Profile of " + player.getName(), 3)
+                .setBorders(this.border)
+                .setSlot(13, QuickItem.of(Material.SKULL_ITEM).durability(3).name("§a" + player.getName()));
+    }
+
+    /**
+     * A menu whose action runs off the server thread, then edits the menu back on it
+     */
+    private QuickInventory bank() {
+        return new QuickInventory("Bank", 3)
+                .setBorders(this.border)
+                .setSlotAsync(13, QuickItem.of(Material.GOLD_INGOT).name("§6Deposit 10 coins"), context -> {
+                    LongAdder balance = this.balances.computeIfAbsent(context.getPlayer(), uuid -> new LongAdder());
+                    balance.add(10);
+                    long sum = balance.sum();
+                    context.edit(transaction -> transaction.setSlot(15, QuickItem.of(Material.GOLD_INGOT).name("§6Balance: " + sum)));
+                });
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean))
+            return -1L;
+        return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+}
@@ -0,0 +1,120 @@
+package fr.zorg.quickinventory.loadtest;
+
+import fr.zorg.quickinventory.QuickInventory;
+import fr.zorg.quickinventory.headless.HeadlessServer;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Random;
+
+/**
+ * A scripted player: opens a menu, clicks a few slots, then closes it and thinks before the next one.
+ * Now and then it leaves the server and joins back, or loses its menu without an {@link org.bukkit.event.inventory.InventoryCloseEvent}
+ */
+final class SimulatedPlayer {
+
+    /**
+     * Chance to leave the server instead of closing a menu
+     */
+    private static final double QUIT_CHANCE = 0.01D;
+
+    /**
+     * Chance to lose a menu without its close event, like a kick during a teleport
+     */
+    private static final double SILENT_CLOSE_CHANCE = 0.005D;
+
+    private final String name;
+    private final Random random;
+    private final LoadSimulation simulation;
+    private Player player;
+    private long wakeUpTick;
+    private int clicksLeft;
+
+    SimulatedPlayer(String name, long seed, LoadSimulation simulation) {
+        this.name = name;
+        this.random = new Random(seed);
+        this.simulation = simulation;
+        this.join();
+        // Spread the first openings over the first seconds
+        this.wakeUpTick = this.random.nextInt(100);
+    }
+
+    /**
+     * Play one tick of the script
+     *
+     * @param tick The current tick
+     */
+    void tick(long tick) {
+        if (tick < this.wakeUpTick)
+            return;
+        if (this.player == null) {
+            this.join();
+            this.wakeUpTick = tick + 20 + this.random.nextInt(100);
+            return;
+        }
+
+        Inventory top = this.player.getOpenInventory().getTopInventory();
+        if (!(top.getHolder() instanceof QuickInventory)) {
+            this.simulation.openMenu(this.player, this.random);
+            this.clicksLeft = 1 + this.random.nextInt(10);
+            this.wakeUpTick = tick + 2 + this.random.nextInt(10);
+            return;
+        }
+
+        if (this.clicksLeft-- > 0) {
+            this.click(top.getSize());
+            this.wakeUpTick = tick + 2 + this.random.nextInt(8);
+            return;
+        }
+
+        double roll = this.random.nextDouble();
+        if (roll < QUIT_CHANCE) {
+            HeadlessServer.quit(this.player);
+            this.player = null;
+            this.simulation.getReport().quit();
+            this.wakeUpTick = tick + 20 + this.random.nextInt(80);
+            return;
+        }
+        if (roll < QUIT_CHANCE + SILENT_CLOSE_CHANCE) {
+            HeadlessServer.closeSilently(this.player);
+            this.simulation.getReport().silentClose();
+        } else {
+            this.player.closeInventory();
+            this.simulation.getReport().close();
+        }
+        this.wakeUpTick = tick + 20 + this.random.nextInt(100);
+    }
+
+    /**
+     * Close the menu of the player, if any
+     */
+    void close() {
+        if (this.player != null)
+            this.player.closeInventory();
+    }
+
+    private void join() {
+        this.player = HeadlessServer.player(this.name);
+        this.player.getInventory().setItem(0, new ItemStack(Material.DIRT, 16));
+        this.player.getInventory().setItem(1, new ItemStack(Material.COBBLESTONE, 64));
+    }
+
+    /**
+     * Click a random slot of the opened menu or of the player inventory, shift-clicking now and then
+     *
+     * @param topSize The size of the opened menu
+     */
+    private void click(int topSize) {
+        int rawSlot = this.random.nextInt(topSize + 36);
+        boolean shift = rawSlot >= topSize || this.random.nextInt(5) == 0;
+        HeadlessServer.callEvent(HeadlessServer.click(this.player, rawSlot,
+                shift ? ClickType.SHIFT_LEFT : ClickType.LEFT,
+                shift ? InventoryAction.MOVE_TO_OTHER_INVENTORY : InventoryAction.PICKUP_ALL));
+        this.simulation.getReport().click();
+    }
+
+}
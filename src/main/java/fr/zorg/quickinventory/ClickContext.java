@@ -0,0 +1,157 @@
+package fr.zorg.quickinventory;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A copy of the data of a click, taken on the server thread. Its getters are safe to call from any thread.
+ * The clicked {@link QuickInventory} and the {@link Player} are live Bukkit objects, they are never handed out directly:
+ * they are only reachable on the server thread, through {@link ClickContext#edit(Consumer)},
+ * {@link ClickContext#withInventory(Consumer)} and {@link ClickContext#withPlayer(Consumer)}.
+ * Given to the actions set with {@link QuickInventory#setSlotAsync(int, ItemStack, Consumer)}
+ *
+ * @author <a href="https://github.com/ZorgBtw">Zorg</a>
+ */
+public final class ClickContext {
+
+    private final QuickInventory inventory;
+    private final UUID player;
+    private final int slot;
+    private final int rawSlot;
+    private final ClickType click;
+    private final InventoryAction action;
+    private final int hotbarButton;
+    private final ItemStack currentItem;
+    private final ItemStack cursor;
+
+    private ClickContext(QuickInventory inventory, InventoryClickEvent e) {
+        this.inventory = inventory;
+        this.player = e.getWhoClicked().getUniqueId();
+        this.slot = e.getSlot();
+        this.rawSlot = e.getRawSlot();
+        this.click = e.getClick();
+        this.action = e.getAction();
+        this.hotbarButton = e.getHotbarButton();
+        this.currentItem = e.getCurrentItem() == null ? null : e.getCurrentItem().clone();
+        this.cursor = e.getCursor() == null ? null : e.getCursor().clone();
+    }
+
+    /**
+     * Copy the data of a click, must be called from the server thread
+     *
+     * @param inventory The clicked {@link QuickInventory}
+     * @param e         The click
+     * @return A new {@link ClickContext}
+     */
+    static ClickContext of(QuickInventory inventory, InventoryClickEvent e) {
+        return new ClickContext(inventory, e);
+    }
+
+    /**
+     * Run a task on the server thread, to use the Bukkit API after a slow operation
+     *
+     * @param task The task to run
+     * @return A {@link CompletableFuture} completed once the task ran
+     */
+    public CompletableFuture<Void> runSync(Runnable task) {
+        return CompletableFuture.runAsync(task, QuickInventoryManager.getMainThreadExecutor());
+    }
+
+    /**
+     * Compute a value on the server thread, to use the Bukkit API after a slow operation
+     *
+     * @param supplier The computation
+     * @param <T>      The type of the value
+     * @return A {@link CompletableFuture} completed with the value
+     */
+    public <T> CompletableFuture<T> supplySync(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, QuickInventoryManager.getMainThreadExecutor());
+    }
+
+    /**
+     * Edit the clicked {@link QuickInventory} on the server thread
+     *
+     * @param editor The changes to apply
+     * @return A {@link CompletableFuture} completed once the changes are applied
+     * @see QuickInventory#edit(Consumer)
+     */
+    public CompletableFuture<Void> edit(Consumer<QuickTransaction> editor) {
+        return this.runSync(() -> this.inventory.edit(editor));
+    }
+
+    /**
+     * Run a task with the clicked {@link QuickInventory} on the server thread
+     *
+     * @param task The task to run
+     * @return A {@link CompletableFuture} completed once the task ran
+     */
+    public CompletableFuture<Void> withInventory(Consumer<QuickInventory> task) {
+        return this.runSync(() -> task.accept(this.inventory));
+    }
+
+    /**
+     * Run a task with the clicking {@link Player} on the server thread, skipped if they left
+     *
+     * @param task The task to run
+     * @return A {@link CompletableFuture} completed once the task ran or was skipped
+     */
+    public CompletableFuture<Void> withPlayer(Consumer<Player> task) {
+        return this.runSync(() -> {
+            Player player = Bukkit.getPlayer(this.player);
+            if (player != null)
+                task.accept(player);
+        });
+    }
+
+    public UUID getPlayer() {
+        return this.player;
+    }
+
+    public int getSlot() {
+        return this.slot;
+    }
+
+    public int getRawSlot() {
+        return this.rawSlot;
+    }
+
+    public ClickType getClick() {
+        return this.click;
+    }
+
+    public InventoryAction getAction() {
+        return this.action;
+    }
+
+    public int getHotbarButton() {
+        return this.hotbarButton;
+    }
+
+    /**
+     * Return a copy of the clicked item
+     *
+     * @return The clicked item, may be null
+     */
+    public ItemStack getCurrentItem() {
+        return this.currentItem;
+    }
+
+    /**
+     * Return a copy of the item on the cursor when clicking
+     *
+     * @return The cursor item, may be null
+     */
+    public ItemStack getCursor() {
+        return this.cursor;
+    }
+
+}
@@ -0,0 +1,185 @@
+package fr.zorg.quickinventory;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-player click throttling applied by {@link QuickInventoryManager} before a click reaches its action.
+ * The rate limit is a token bucket stored as a single timestamp per player (generic cell rate algorithm),
+ * the debounce rejects repeated clicks on the same slot, remembered per slot by each {@link QuickInventory}. Both are disabled by default
+ *
+ * @author <a href="https://github.com/ZorgBtw">Zorg</a>
+ * @see QuickInventoryManager#getClickThrottle()
+ */
+public final class ClickThrottle {
+
+    /**
+     * The theoretical arrival time of the next click of each player at the sustained rate
+     */
+    private final Map<UUID, AtomicLong> theoreticalArrivals = new ConcurrentHashMap<>();
+
+    private final LongAdder rejectedByRate = new LongAdder();
+    private final LongAdder rejectedByDebounce = new LongAdder();
+
+    /**
+     * Nanoseconds between two clicks at the sustained rate, 0 when the rate limit is disabled
+     */
+    private volatile long emissionInterval;
+
+    /**
+     * How far ahead of the sustained rate a player may be, allowing bursts
+     */
+    private volatile long burstTolerance;
+
+    private volatile long debounce;
+
+    ClickThrottle() {
+    }
+
+    /**
+     * Limit the amount of clicks per player
+     *
+     * @param clicksPerSecond The sustained amount of clicks per second
+     * @param burst           The amount of clicks allowed at once
+     * @return The {@link ClickThrottle}
+     */
+    public ClickThrottle setRateLimit(int clicksPerSecond, int burst) {
+        if (clicksPerSecond < 1 || burst < 1)
+            throw new IllegalArgumentException("The rate and the burst must be at least 1");
+        long interval = TimeUnit.SECONDS.toNanos(1) / clicksPerSecond;
+        this.burstTolerance = interval * (burst - 1);
+        this.emissionInterval = interval;
+        return this;
+    }
+
+    /**
+     * Remove the limit of clicks per player
+     *
+     * @return The {@link ClickThrottle}
+     */
+    public ClickThrottle disableRateLimit() {
+        this.emissionInterval = 0;
+        return this;
+    }
+
+    /**
+     * Reject a click of a player on a slot if it comes sooner than the duration after their previous click on that slot,
+     * whatever they clicked in between. A slot may ask for a longer duration with {@link QuickInventory#setClickCooldown(int, long, TimeUnit)}
+     *
+     * @param duration The minimum duration between two clicks on the same slot, 0 to disable
+     * @param unit     The unit of the duration
+     * @return The {@link ClickThrottle}
+     */
+    public ClickThrottle setDebounce(long duration, TimeUnit unit) {
+        this.debounce = unit.toNanos(duration);
+        return this;
+    }
+
+    /**
+     * Check if the rate limit or the debounce is enabled
+     *
+     * @return True if every click must go through {@link ClickThrottle#tryAcquire(UUID, int, SlotCooldowns)}
+     */
+    boolean isActive() {
+        return this.emissionInterval > 0 || this.debounce > 0;
+    }
+
+    /**
+     * Check if a click is allowed, and count it if it is
+     *
+     * @param player    The player clicking
+     * @param slot      The clicked slot
+     * @param cooldowns The clicks on the slots of the clicked {@link QuickInventory}
+     * @return True if the click is allowed
+     */
+    boolean tryAcquire(UUID player, int slot, SlotCooldowns cooldowns) {
+        return this.tryAcquire(player, slot, cooldowns, System.nanoTime());
+    }
+
+    /**
+     * Check if a click is allowed, and count it if it is
+     *
+     * @param player    The player clicking
+     * @param slot      The clicked slot
+     * @param cooldowns The clicks on the slots of the clicked {@link QuickInventory}
+     * @param now       The current {@link System#nanoTime()}
+     * @return True if the click is allowed
+     */
+    boolean tryAcquire(UUID player, int slot, SlotCooldowns cooldowns, long now) {
+        final long interval = this.emissionInterval;
+        final long debounce = this.debounce;
+
+        if (cooldowns.isCoolingDown(player, slot, debounce, now)) {
+            this.rejectedByDebounce.increment();
+            return false;
+        }
+
+        if (interval > 0) {
+            final long tolerance = this.burstTolerance;
+            final AtomicLong theoreticalArrival = this.theoreticalArrivals.computeIfAbsent(player, uuid -> new AtomicLong(Long.MIN_VALUE));
+            long stored;
+            long arrival;
+            do {
+                stored = theoreticalArrival.get();
+                arrival = Math.max(stored, now);
+                if (arrival - now > tolerance) {
+                    this.rejectedByRate.increment();
+                    return false;
+                }
+            } while (!theoreticalArrival.compareAndSet(stored, arrival + interval));
+        }
+
+        cooldowns.record(player, slot, debounce, now);
+        return true;
+    }
+
+    /**
+     * Forget the clicks of a player closing a {@link QuickInventory}, unless one of its slots still cools down for them
+     *
+     * @param player    The player
+     * @param cooldowns The clicks on the slots of the closed {@link QuickInventory}
+     */
+    void expire(UUID player, SlotCooldowns cooldowns) {
+        cooldowns.expire(player, System.nanoTime());
+    }
+
+    /**
+     * Forget the state of a player, when they leave
+     *
+     * @param player The player
+     */
+    void forget(UUID player) {
+        this.theoreticalArrivals.remove(player);
+    }
+
+    /**
+     * Return the amount of clicks rejected by the rate limit
+     *
+     * @return The rejected clicks
+     */
+    public long getRejectedByRate() {
+        return this.rejectedByRate.sum();
+    }
+
+    /**
+     * Return the amount of clicks rejected by the debounce or a slot cooldown
+     *
+     * @return The rejected clicks
+     */
+    public long getRejectedByDebounce() {
+        return this.rejectedByDebounce.sum();
+    }
+
+    /**
+     * Reset the rejected clicks counters
+     */
+    public void resetCounters() {
+        this.rejectedByRate.reset();
+        this.rejectedByDebounce.reset();
+    }
+
+}
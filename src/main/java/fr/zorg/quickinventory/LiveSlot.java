@@ -0,0 +1,62 @@
+package fr.zorg.quickinventory;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.util.function.Supplier;
+
+/**
+ * A slot of a {@link QuickInventory} whose item is re-evaluated on an interval
+ *
+ * @see QuickInventory#setLiveSlot(int, Supplier, long)
+ */
+final class LiveSlot extends TimingWheel.Task {
+
+    private final SlotBatch batch;
+    private final int slot;
+    private final Supplier<QuickItem> supplier;
+    private final long interval;
+
+    /**
+     * Copy of the last item written to the slot
+     */
+    private ItemStack current;
+
+    LiveSlot(SlotBatch batch, int slot, Supplier<QuickItem> supplier, long interval) {
+        if (interval < 1)
+            throw new IllegalArgumentException("The interval must be at least 1 tick");
+        this.batch = batch;
+        this.slot = slot;
+        this.supplier = supplier;
+        this.interval = interval;
+    }
+
+    /**
+     * Copy the live slot, unscheduled and due at the same tick
+     *
+     * @return A new {@link LiveSlot} writing to the same slot
+     */
+    LiveSlot copy() {
+        LiveSlot copy = new LiveSlot(this.batch, this.slot, this.supplier, this.interval);
+        copy.current = this.current;
+        copy.setDeadline(this.getDeadline());
+        return copy;
+    }
+
+    /**
+     * Evaluate the supplier and write the item if it changed since the last evaluation
+     *
+     * @param tick The current tick
+     * @return The tick of the next evaluation
+     */
+    @Override
+    long run(long tick) {
+        QuickItem quickItem = this.supplier.get();
+        ItemStack item = quickItem == null ? null : quickItem.build();
+        if (item == null ? this.current != null : !item.equals(this.current)) {
+            this.current = item == null ? null : item.clone();
+            this.batch.setItem(this.slot, this.current);
+        }
+        return tick + this.interval;
+    }
+
+}
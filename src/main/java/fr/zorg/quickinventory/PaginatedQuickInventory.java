@@ -0,0 +1,252 @@
+package fr.zorg.quickinventory;
+
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * A {@link QuickInventory} displaying a large source of items page by page.
+ * Only the items of the displayed page are built, so memory scales with the page size and not with the source size
+ *
+ * @author <a href="https://github.com/ZorgBtw">Zorg</a>
+ */
+public class PaginatedQuickInventory extends QuickInventory {
+
+    private final int[] contentSlots;
+
+    private IntFunction<QuickItem> source;
+    private IntSupplier sourceSize;
+    private ObjIntConsumer<InventoryClickEvent> elementAction;
+    private int page;
+
+    private Executor prefetchExecutor;
+    private CompletableFuture<ItemStack[]> prefetched;
+    private int prefetchedPage = -1;
+
+    /**
+     * Creates a new {@link PaginatedQuickInventory}
+     *
+     * @param title        The title of the inventory
+     * @param size         The size of the inventory, in rows or in slots
+     * @param contentSlots The slots displaying the items of the source, in display order
+     * @param source       The item at an index of the source, must be thread-safe if a prefetch executor is set
+     * @param sourceSize   The amount of items in the source
+     */
+    public PaginatedQuickInventory(String title, int size, int[] contentSlots, IntFunction<QuickItem> source, IntSupplier sourceSize) {
+        super(title, size);
+        this.contentSlots = contentSlots.clone();
+        this.source = source;
+        this.sourceSize = sourceSize;
+
+        for (int i = 0; i < this.contentSlots.length; i++) {
+            final int position = i;
+            this.setAction(this.contentSlots[i], inventoryClickEvent -> this.onElementClick(inventoryClickEvent, position));
+        }
+        this.setPage(0);
+    }
+
+    /**
+     * Creates a new {@link PaginatedQuickInventory} displaying the items in every slot but the last row
+     *
+     * @param title      The title of the inventory
+     * @param size       The size of the inventory, in rows or in slots
+     * @param source     The item at an index of the source, must be thread-safe if a prefetch executor is set
+     * @param sourceSize The amount of items in the source
+     */
+    public PaginatedQuickInventory(String title, int size, IntFunction<QuickItem> source, IntSupplier sourceSize) {
+        this(title, size, defaultContentSlots(size < 9 ? size * 9 : size), source, sourceSize);
+    }
+
+    /**
+     * Creates a new {@link PaginatedQuickInventory} displaying a {@link List} in every slot but the last row
+     *
+     * @param title The title of the inventory
+     * @param size  The size of the inventory, in rows or in slots
+     * @param items The items to display
+     */
+    public PaginatedQuickInventory(String title, int size, List<QuickItem> items) {
+        this(title, size, items::get, items::size);
+    }
+
+    /**
+     * Replace the source of the {@link PaginatedQuickInventory} and go back to the first page
+     *
+     * @param source     The item at an index of the source
+     * @param sourceSize The amount of items in the source
+     * @return The {@link PaginatedQuickInventory}
+     */
+    public PaginatedQuickInventory setSource(IntFunction<QuickItem> source, IntSupplier sourceSize) {
+        this.source = source;
+        this.sourceSize = sourceSize;
+        this.prefetched = null;
+        this.prefetchedPage = -1;
+        return this.setPage(0);
+    }
+
+    /**
+     * Set the action to perform when an item of the source is clicked
+     *
+     * @param elementAction The action, receiving the click and the index of the item in the source
+     * @return The {@link PaginatedQuickInventory}
+     */
+    public PaginatedQuickInventory setElementAction(ObjIntConsumer<InventoryClickEvent> elementAction) {
+        this.elementAction = elementAction;
+        return this;
+    }
+
+    /**
+     * Set the item going to the previous page
+     *
+     * @param slot      The slot of the item
+     * @param quickItem The {@link QuickItem} to set
+     * @return The {@link PaginatedQuickInventory}
+     */
+    public PaginatedQuickInventory setPreviousPageItem(int slot, QuickItem quickItem) {
+        this.setSlot(slot, quickItem, inventoryClickEvent -> this.previousPage());
+        return this;
+    }
+
+    /**
+     * Set the item going to the next page
+     *
+     * @param slot      The slot of the item
+     * @param quickItem The {@link QuickItem} to set
+     * @return The {@link PaginatedQuickInventory}
+     */
+    public PaginatedQuickInventory setNextPageItem(int slot, QuickItem quickItem) {
+        this.setSlot(slot, quickItem, inventoryClickEvent -> this.nextPage());
+        return this;
+    }
+
+    /**
+     * Build the next page in the background with an {@link Executor} after each page change.
+     * The source must be thread-safe
+     *
+     * @param prefetchExecutor The {@link Executor} building the next page, or null to disable prefetching
+     * @return The {@link PaginatedQuickInventory}
+     */
+    public PaginatedQuickInventory setPrefetchExecutor(Executor prefetchExecutor) {
+        this.prefetchExecutor = prefetchExecutor;
+        return this;
+    }
+
+    /**
+     * Display a page
+     *
+     * @param page The page to display, starting at 0. Clamped to the existing pages
+     * @return The {@link PaginatedQuickInventory}
+     */
+    public PaginatedQuickInventory setPage(int page) {
+        this.page = Math.max(0, Math.min(page, this.getPageCount() - 1));
+
+        ItemStack[] items = null;
+        if (this.prefetchedPage == this.page && this.prefetched.isDone() && !this.prefetched.isCompletedExceptionally())
+            items = this.prefetched.join();
+        if (items == null)
+            items = this.buildPage(this.page);
+
+        final ItemStack[] pageItems = items;
+        this.edit(transaction -> {
+            for (int i = 0; i < this.contentSlots.length; i++) {
+                transaction.setItem(this.contentSlots[i], pageItems[i]);
+            }
+        });
+
+        this.prefetch(this.page + 1);
+        return this;
+    }
+
+    /**
+     * Display the next page, if there is one
+     *
+     * @return The {@link PaginatedQuickInventory}
+     */
+    public PaginatedQuickInventory nextPage() {
+        return this.setPage(this.page + 1);
+    }
+
+    /**
+     * Display the previous page, if there is one
+     *
+     * @return The {@link PaginatedQuickInventory}
+     */
+    public PaginatedQuickInventory previousPage() {
+        return this.setPage(this.page - 1);
+    }
+
+    /**
+     * Rebuild the displayed page, after the source changed
+     *
+     * @return The {@link PaginatedQuickInventory}
+     */
+    public PaginatedQuickInventory refresh() {
+        this.prefetched = null;
+        this.prefetchedPage = -1;
+        return this.setPage(this.page);
+    }
+
+    /**
+     * Return the displayed page, starting at 0
+     *
+     * @return The displayed page
+     */
+    public int getPage() {
+        return this.page;
+    }
+
+    /**
+     * Return the amount of pages, at least 1
+     *
+     * @return The amount of pages
+     */
+    public int getPageCount() {
+        int pageSize = this.getPageSize();
+        return pageSize == 0 ? 1 : Math.max(1, (this.sourceSize.getAsInt() + pageSize - 1) / pageSize);
+    }
+
+    /**
+     * Return the amount of items displayed on a page
+     *
+     * @return The page size
+     */
+    public int getPageSize() {
+        return this.contentSlots.length;
+    }
+
+    private ItemStack[] buildPage(int page) {
+        final ItemStack[] items = new ItemStack[this.contentSlots.length];
+        final int size = this.sourceSize.getAsInt();
+        final int start = page * this.contentSlots.length;
+        for (int i = 0; i < items.length && start + i < size; i++) {
+            QuickItem quickItem = this.source.apply(start + i);
+            if (quickItem != null)
+                items[i] = quickItem.build();
+        }
+        return items;
+    }
+
+    private void prefetch(int page) {
+        if (this.prefetchExecutor == null || page >= this.getPageCount() || page == this.prefetchedPage)
+            return;
+        this.prefetchedPage = page;
+        this.prefetched = CompletableFuture.supplyAsync(() -> this.buildPage(page), this.prefetchExecutor);
+    }
+
+    private void onElementClick(InventoryClickEvent inventoryClickEvent, int position) {
+        int index = this.page * this.contentSlots.length + position;
+        if (this.elementAction != null && index < this.sourceSize.getAsInt())
+            this.elementAction.accept(inventoryClickEvent, index);
+    }
+
+    private static int[] defaultContentSlots(int size) {
+        return IntStream.range(0, size > 9 ? size - 9 : size).toArray();
+    }
+
+}
@@ -1,16 +1,32 @@
 package fr.zorg.quickinventory;
 
 import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.entity.HumanEntity;
 import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
 
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.IntStream;
 
 /**
@@ -21,16 +37,82 @@ import java.util.stream.IntStream;
  */
 public class QuickInventory implements InventoryHolder {
 
+    private static final int CLICK_TYPES = ClickType.values().length;
+
+    /**
+     * Border and corner slots, computed once per inventory size
+     */
+    private static final Map<Integer, int[]> BORDER_SLOTS = new ConcurrentHashMap<>();
+    private static final Map<Integer, int[]> CORNER_SLOTS = new ConcurrentHashMap<>();
+
     private Inventory inventory;
 
-    private Map<Integer, Consumer<InventoryClickEvent>> actions;
+    /**
+     * Actions run for any click on a slot, indexed by slot
+     */
+    private Consumer<InventoryClickEvent>[] actions;
+
+    /**
+     * Actions bound to a specific {@link ClickType}, indexed by {@code slot * CLICK_TYPES + clickType.ordinal()}.
+     * Only allocated once a {@link ClickType} specific action is set
+     */
+    private Consumer<InventoryClickEvent>[] clickTypeActions;
+
+    /**
+     * True while the action tables are borrowed from a {@link QuickInventoryTemplate}, they are copied on the first write
+     */
+    private boolean sharedActions;
+
+    /**
+     * Live slots and animations, indexed by slot. Scheduled on the {@link TimingWheel} of {@link QuickInventoryManager}
+     * while the {@link QuickInventory} is opened. Only allocated once a live slot or an animation is set
+     */
+    private TimingWheel.Task[] slotTasks;
+
+    /**
+     * Writes the items of the live slots and animations, once per tick. Only allocated once a live slot or an animation is set
+     */
+    private SlotBatch slotBatch;
+
+    /**
+     * The cooldowns of the slots and the last clicks of each player on them. Only allocated once a cooldown is set or a click is throttled
+     */
+    private SlotCooldowns clickCooldowns;
+
+    /**
+     * Slots players may take items from and put items in, one bit per slot. A slot in neither mask is locked.
+     * Only allocated once a slot is opened, every slot is locked by default
+     */
+    private long[] takeable;
+    private long[] placeable;
+
+    private QuickInventoryMetrics.InventoryMetrics metrics;
+
+    /**
+     * Amount of players the {@link QuickInventory} is opened to, it stays tracked by {@link QuickInventoryManager} until the last one closes it
+     */
+    private final AtomicInteger viewers = new AtomicInteger();
 
     public QuickInventory(InventoryType inventoryType, String title, int size) {
-        this.actions = new HashMap<>();
-        if (inventoryType == InventoryType.CHEST)
-            this.inventory = Bukkit.createInventory(this, size < 9 ? size * 9 : size, title);
-        else
-            this.inventory = Bukkit.createInventory(this, inventoryType, title);
+        this.inventory = createInventory(this, inventoryType, title, inventoryType == InventoryType.CHEST && size < 9 ? size * 9 : size);
+        this.actions = newActionTable(this.inventory.getSize());
+    }
+
+    /**
+     * Creates a new {@link QuickInventory} from a {@link QuickInventoryTemplate}.
+     * The prebuilt contents are copied in one go and the actions are shared with the template
+     * until this inventory changes one of them
+     *
+     * @param template The {@link QuickInventoryTemplate} to start from
+     */
+    public QuickInventory(QuickInventoryTemplate template) {
+        this.inventory = createInventory(this, template.getInventoryType(), template.getTitle(), template.getSize());
+        this.inventory.setContents(template.getContents());
+        this.actions = template.getActions();
+        this.clickTypeActions = template.getClickTypeActions();
+        this.sharedActions = true;
+        this.takeable = template.getTakeable() == null ? null : template.getTakeable().clone();
+        this.placeable = template.getPlaceable() == null ? null : template.getPlaceable().clone();
     }
 
     public QuickInventory(InventoryType inventoryType) {
@@ -60,13 +142,7 @@ public class QuickInventory implements InventoryHolder {
      */
     public QuickInventory setSlot(int slot, ItemStack item, Consumer<InventoryClickEvent> action) {
         this.inventory.setItem(slot, item);
-
-        if (this.actions.containsKey(slot))
-            this.actions.remove(slot);
-
-        if (action != null)
-            this.actions.put(slot, action);
-        return this;
+        return this.setAction(slot, action);
     }
 
     /**
@@ -139,10 +215,7 @@ public class QuickInventory implements InventoryHolder {
      * @author <a href="https://github.com/MrMicky-FR/FastInv/blob/ab91d148986be89c99d2f2149cbad4181c888fdd/src/main/java/fr/mrmicky/fastinv/FastInv.java#L301">FastInv</a>
      */
     public QuickInventory setCorners(ItemStack item, Consumer<InventoryClickEvent> action) {
-        int size = this.inventory.getSize();
-        return this.setSlots(IntStream.range(0, size)
-                .filter(i -> i < 2 || (i > 6 && i < 10) || i == 17 || i == size - 18 || (i > size - 11 && i < size - 7) || i > size - 3)
-                .toArray(), item, action);
+        return this.setSlots(cornerSlots(this.inventory.getSize()), item, action);
     }
 
     /**
@@ -192,10 +265,7 @@ public class QuickInventory implements InventoryHolder {
      * @author <a href="https://github.com/MrMicky-FR/FastInv/blob/ab91d148986be89c99d2f2149cbad4181c888fdd/src/main/java/fr/mrmicky/fastinv/FastInv.java#L291">FastInv</a>
      */
     public QuickInventory setBorders(ItemStack item, Consumer<InventoryClickEvent> action) {
-        int size = this.inventory.getSize();
-        return this.setSlots(IntStream.range(0, size)
-                .filter(i -> size < 27 || i < 9 || i % 9 == 0 || (i - 8) % 9 == 0 || i > size - 9)
-                .toArray(), item, action);
+        return this.setSlots(borderSlots(this.inventory.getSize()), item, action);
     }
 
     /**
@@ -236,14 +306,383 @@ public class QuickInventory implements InventoryHolder {
     }
 
     /**
-     * Sets the {@link QuickInventory} to another {@link QuickInventory}
+     * Set the action to perform when a slot is clicked, whatever the {@link ClickType} is.
+     * Replaces every action previously bound to this slot, including {@link ClickType} specific ones
+     *
+     * @param slot   The slot to bind
+     * @param action The action to perform, or null to remove the actions of the slot
+     * @return The {@link QuickInventory}
+     */
+    public QuickInventory setAction(int slot, Consumer<InventoryClickEvent> action) {
+        this.ensureOwnActions();
+        this.actions[slot] = action;
+        if (this.clickTypeActions != null)
+            for (int i = slot * CLICK_TYPES; i < (slot + 1) * CLICK_TYPES; i++)
+                this.clickTypeActions[i] = null;
+        return this;
+    }
+
+    /**
+     * Set the action to perform when a slot is clicked with a specific {@link ClickType}.
+     * It takes precedence over the action set with {@link QuickInventory#setAction(int, Consumer)}
+     *
+     * @param slot      The slot to bind
+     * @param clickType The {@link ClickType} that triggers the action
+     * @param action    The action to perform, or null to remove it
+     * @return The {@link QuickInventory}
+     */
+    public QuickInventory setAction(int slot, ClickType clickType, Consumer<InventoryClickEvent> action) {
+        this.ensureOwnActions();
+        if (this.clickTypeActions == null) {
+            if (action == null)
+                return this;
+            this.clickTypeActions = newActionTable(this.actions.length * CLICK_TYPES);
+        }
+        this.clickTypeActions[slot * CLICK_TYPES + clickType.ordinal()] = action;
+        return this;
+    }
+
+    /**
+     * Set a specific slot of the {@link QuickInventory} to a {@link QuickItem},
+     * with an action to perform when this item is clicked with a specific {@link ClickType}
+     *
+     * @param slot      The slot to set
+     * @param quickItem The {@link QuickItem} to set, don't need to build it directly
+     * @param clickType The {@link ClickType} that triggers the action
+     * @param action    The action to perform when the item is clicked in the inventory
+     * @return The {@link QuickInventory}
+     */
+    public QuickInventory setSlot(int slot, QuickItem quickItem, ClickType clickType, Consumer<InventoryClickEvent> action) {
+        this.inventory.setItem(slot, quickItem.build());
+        return this.setAction(slot, clickType, action);
+    }
+
+    /**
+     * Shortcut to {@link QuickInventory#setAction(int, ClickType, Consumer)} with {@link ClickType#LEFT}
+     *
+     * @param slot   The slot to bind
+     * @param action The action to perform
+     * @return The {@link QuickInventory}
+     */
+    public QuickInventory onLeftClick(int slot, Consumer<InventoryClickEvent> action) {
+        return this.setAction(slot, ClickType.LEFT, action);
+    }
+
+    /**
+     * Shortcut to {@link QuickInventory#setAction(int, ClickType, Consumer)} with {@link ClickType#RIGHT}
+     *
+     * @param slot   The slot to bind
+     * @param action The action to perform
+     * @return The {@link QuickInventory}
+     */
+    public QuickInventory onRightClick(int slot, Consumer<InventoryClickEvent> action) {
+        return this.setAction(slot, ClickType.RIGHT, action);
+    }
+
+    /**
+     * Shortcut to {@link QuickInventory#setAction(int, ClickType, Consumer)} with both
+     * {@link ClickType#SHIFT_LEFT} and {@link ClickType#SHIFT_RIGHT}
+     *
+     * @param slot   The slot to bind
+     * @param action The action to perform
+     * @return The {@link QuickInventory}
+     */
+    public QuickInventory onShiftClick(int slot, Consumer<InventoryClickEvent> action) {
+        return this.setAction(slot, ClickType.SHIFT_LEFT, action).setAction(slot, ClickType.SHIFT_RIGHT, action);
+    }
+
+    /**
+     * Shortcut to {@link QuickInventory#setAction(int, ClickType, Consumer)} with {@link ClickType#MIDDLE}
+     *
+     * @param slot   The slot to bind
+     * @param action The action to perform
+     * @return The {@link QuickInventory}
+     */
+    public QuickInventory onMiddleClick(int slot, Consumer<InventoryClickEvent> action) {
+        return this.setAction(slot, ClickType.MIDDLE, action);
+    }
+
+    /**
+     * Shortcut to {@link QuickInventory#setAction(int, ClickType, Consumer)} with {@link ClickType#NUMBER_KEY}
+     *
+     * @param slot   The slot to bind
+     * @param action The action to perform
+     * @return The {@link QuickInventory}
+     */
+    public QuickInventory onNumberKey(int slot, Consumer<InventoryClickEvent> action) {
+        return this.setAction(slot, ClickType.NUMBER_KEY, action);
+    }
+
+    /**
+     * Set the item of a slot from a {@link QuickItemSpec}, its {@link ItemStack} is built now
+     *
+     * @param slot The slot to set
+     * @param spec The spec of the item to set
+     * @return The {@link QuickInventory}
+     */
+    public QuickInventory setSlot(int slot, QuickItemSpec spec) {
+        return this.setSlot(slot, spec.toItemStack(), null);
+    }
+
+    /**
+     * Set the item of a slot from a {@link QuickItemSpec}, its {@link ItemStack} is built now
+     *
+     * @param slot   The slot to set
+     * @param spec   The spec of the item to set
+     * @param action The action to perform when the item is clicked in the inventory
+     * @return The {@link QuickInventory}
+     */
+    public QuickInventory setSlot(int slot, QuickItemSpec spec, Consumer<InventoryClickEvent> action) {
+        return this.setSlot(slot, spec.toItemStack(), action);
+    }
+
+    /**
+     * Set the {@link ItemStack} of a slot with an action run off the server thread, for actions calling a database or a web API.
+     * The click is cancelled and copied into a {@link ClickContext} on the server thread, then the action runs on
+     * {@link QuickInventoryManager#getAsyncExecutor()}
+     *
+     * @param slot   The slot to set
+     * @param item   The item to set
+     * @param action The action to perform when the item is clicked in the inventory
+     * @return The {@link QuickInventory}
+     */
+    public QuickInventory setSlotAsync(int slot, ItemStack item, Consumer<ClickContext> action) {
+        this.inventory.setItem(slot, item);
+        return this.setActionAsync(slot, action);
+    }
+
+    /**
+     * Set the {@link QuickItem} of a slot with an action run off the server thread
+     *
+     * @param slot      The slot to set
+     * @param quickItem The item to set
+     * @param action    The action to perform when the item is clicked in the inventory
+     * @return The {@link QuickInventory}
+     * @see QuickInventory#setSlotAsync(int, ItemStack, Consumer)
+     */
+    public QuickInventory setSlotAsync(int slot, QuickItem quickItem, Consumer<ClickContext> action) {
+        return this.setSlotAsync(slot, quickItem.build(), action);
+    }
+
+    /**
+     * Set the action of a slot, run off the server thread
+     *
+     * @param slot   The slot
+     * @param action The action to perform when the slot is clicked, null to remove it
+     * @return The {@link QuickInventory}
+     * @see QuickInventory#setSlotAsync(int, ItemStack, Consumer)
+     */
+    public QuickInventory setActionAsync(int slot, Consumer<ClickContext> action) {
+        return this.setAction(slot, action == null ? null : asyncAction(action));
+    }
+
+    /**
+     * Set the minimum duration between two clicks of a player on a slot, clicks coming sooner never reach the action.
+     * Useful for purchase buttons
+     *
+     * @param slot     The slot
+     * @param cooldown The minimum duration between two clicks, 0 to remove it
+     * @param unit     The unit of the cooldown
+     * @return The {@link QuickInventory}
+     * @see ClickThrottle
+     */
+    public QuickInventory setClickCooldown(int slot, long cooldown, TimeUnit unit) {
+        this.getClickCooldowns().set(slot, unit.toNanos(cooldown));
+        return this;
+    }
+
+    /**
+     * Allow or deny players to take the item of a slot, by clicking, shift-clicking, dropping or swapping it with the hotbar
+     *
+     * @param slot     The slot
+     * @param takeable If the item can be taken
+     * @return The {@link QuickInventory}
+     */
+    public QuickInventory setTakeable(int slot, boolean takeable) {
+        if (this.takeable == null)
+            this.takeable = new long[(this.inventory.getSize() + 63) >>> 6];
+        setBit(this.takeable, slot, takeable);
+        return this;
+    }
+
+    /**
+     * Allow or deny players to put items in a slot, by clicking, dragging, shift-clicking from their inventory or swapping with the hotbar
+     *
+     * @param slot      The slot
+     * @param placeable If items can be put in the slot
+     * @return The {@link QuickInventory}
+     */
+    public QuickInventory setPlaceable(int slot, boolean placeable) {
+        if (this.placeable == null)
+            this.placeable = new long[(this.inventory.getSize() + 63) >>> 6];
+        setBit(this.placeable, slot, placeable);
+        return this;
+    }
+
+    /**
+     * Allow players to take and put items in multiple slots, useful for backpacks or sell chests
+     *
+     * @param slots The slots to open
+     * @return The {@link QuickInventory}
+     */
+    public QuickInventory setFree(int... slots) {
+        for (int slot : slots) {
+            this.setTakeable(slot, true).setPlaceable(slot, true);
+        }
+        return this;
+    }
+
+    /**
+     * Deny players to take or put items in a slot, the default for every slot
+     *
+     * @param slot The slot
+     * @return The {@link QuickInventory}
+     */
+    public QuickInventory setLocked(int slot) {
+        if (this.takeable != null)
+            setBit(this.takeable, slot, false);
+        if (this.placeable != null)
+            setBit(this.placeable, slot, false);
+        return this;
+    }
+
+    public boolean isTakeable(int slot) {
+        return testBit(this.takeable, slot);
+    }
+
+    public boolean isPlaceable(int slot) {
+        return testBit(this.placeable, slot);
+    }
+
+    /**
+     * Bind a slot to a supplier re-evaluated every {@code interval} ticks while the {@link QuickInventory} is opened.
+     * The slot is only written when the supplied item differs from the previous one
+     *
+     * @param slot     The slot to bind
+     * @param supplier The supplier of the {@link QuickItem} to display, may return null to empty the slot
+     * @param interval The amount of ticks between two evaluations
+     * @param action   The action to perform when the item is clicked in the inventory
+     * @return The {@link QuickInventory}
+     */
+    public QuickInventory setLiveSlot(int slot, Supplier<QuickItem> supplier, long interval, Consumer<InventoryClickEvent> action) {
+        LiveSlot liveSlot = new LiveSlot(this.getSlotBatch(), slot, supplier, interval);
+        liveSlot.setDeadline(liveSlot.run(QuickInventoryManager.getCurrentTick()));
+        this.setAction(slot, action);
+        return this.setSlotTask(slot, liveSlot);
+    }
+
+    /**
+     * Bind a slot to a supplier re-evaluated every {@code interval} ticks while the {@link QuickInventory} is opened
+     *
+     * @param slot     The slot to bind
+     * @param supplier The supplier of the {@link QuickItem} to display, may return null to empty the slot
+     * @param interval The amount of ticks between two evaluations
+     * @return The {@link QuickInventory}
+     * @see QuickInventory#setLiveSlot(int, Supplier, long, Consumer)
+     */
+    public QuickInventory setLiveSlot(int slot, Supplier<QuickItem> supplier, long interval) {
+        return this.setLiveSlot(slot, supplier, interval, null);
+    }
+
+    /**
+     * Stop re-evaluating a slot, its current item is kept
+     *
+     * @param slot The slot to unbind
+     * @return The {@link QuickInventory}
+     */
+    public QuickInventory removeLiveSlot(int slot) {
+        return this.setSlotTask(slot, null);
+    }
+
+    /**
+     * Animate a slot with frames shown one after the other in a loop while the {@link QuickInventory} is opened.
+     * Every animation is driven by the single task of {@link QuickInventoryManager}
+     *
+     * @param slot      The slot to animate
+     * @param durations The amount of ticks each frame is shown
+     * @param frames    The frames, one per duration
+     * @param action    The action to perform when the slot is clicked
+     * @return The {@link QuickInventory}
+     */
+    public QuickInventory setAnimation(int slot, long[] durations, QuickItem[] frames, Consumer<InventoryClickEvent> action) {
+        ItemStack[] items = new ItemStack[frames.length];
+        for (int i = 0; i < frames.length; i++) {
+            items[i] = frames[i] == null ? null : frames[i].build().clone();
+        }
+
+        SlotAnimation animation = new SlotAnimation(this.getSlotBatch(), slot, items, durations.clone());
+        animation.show();
+        animation.setDeadline(QuickInventoryManager.getCurrentTick() + animation.getFrameDuration());
+        this.setAction(slot, action);
+        return this.setSlotTask(slot, animation);
+    }
+
+    /**
+     * Animate a slot with frames of the same duration shown one after the other in a loop while the {@link QuickInventory} is opened
+     *
+     * @param slot          The slot to animate
+     * @param frameDuration The amount of ticks each frame is shown
+     * @param frames        The frames
+     * @return The {@link QuickInventory}
+     * @see QuickInventory#setAnimation(int, long[], QuickItem[], Consumer)
+     */
+    public QuickInventory setAnimation(int slot, long frameDuration, QuickItem... frames) {
+        long[] durations = new long[frames.length];
+        Arrays.fill(durations, frameDuration);
+        return this.setAnimation(slot, durations, frames, null);
+    }
+
+    /**
+     * Stop animating a slot, its current frame is kept
+     *
+     * @param slot The slot to stop
+     * @return The {@link QuickInventory}
+     */
+    public QuickInventory removeAnimation(int slot) {
+        return this.setSlotTask(slot, null);
+    }
+
+    /**
+     * Edit multiple slots in a single batch: the changes are staged in a {@link QuickTransaction},
+     * then applied at once with a single update sent to each viewer
+     *
+     * @param editor The changes to apply
+     * @return The {@link QuickInventory}
+     */
+    public QuickInventory edit(Consumer<QuickTransaction> editor) {
+        QuickTransaction transaction = new QuickTransaction(this);
+        editor.accept(transaction);
+        transaction.commit();
+        return this;
+    }
+
+    /**
+     * Sets the {@link QuickInventory} to another {@link QuickInventory}: its inventory, actions, slot policies,
+     * click cooldowns, live slots and animations. The live slots and animations are copied, each {@link QuickInventory}
+     * runs its own while it is opened
      *
      * @param otherInventory The {@link QuickInventory} to replace with this one
      * @return The {@link QuickInventory}
      */
     public QuickInventory setInventory(QuickInventory otherInventory) {
+        this.stopSlotTasks();
         this.inventory = otherInventory.getInventory();
-        this.actions = otherInventory.getActions();
+        this.slotBatch = otherInventory.slotBatch;
+        this.actions = otherInventory.actions;
+        this.clickTypeActions = otherInventory.clickTypeActions;
+        this.sharedActions = otherInventory.sharedActions;
+        this.takeable = otherInventory.takeable;
+        this.placeable = otherInventory.placeable;
+        this.clickCooldowns = otherInventory.clickCooldowns == null ? null : otherInventory.clickCooldowns.copy();
+        this.slotTasks = null;
+        if (otherInventory.slotTasks != null) {
+            this.slotTasks = new TimingWheel.Task[otherInventory.slotTasks.length];
+            for (int slot = 0; slot < this.slotTasks.length; slot++) {
+                this.slotTasks[slot] = copySlotTask(otherInventory.slotTasks[slot]);
+            }
+        }
+        if (this.getViewerCount() > 0)
+            this.startSlotTasks();
         return this;
     }
 
@@ -279,11 +718,89 @@ public class QuickInventory implements InventoryHolder {
      * @return The {@link QuickInventory}
      */
     public QuickInventory open(Player player) {
-        player.openInventory(this.inventory);
-        QuickInventoryManager.addListener(this.inventory, this);
+        if (player.openInventory(this.inventory) != null)
+            QuickInventoryManager.addListener(this, player);
         return this;
     }
 
+    /**
+     * Open the same {@link QuickInventory} to multiple {@link Player}. They share the backing {@link Inventory}
+     * and the actions, and every change is sent to all of them
+     *
+     * @param players The players to open the inventory
+     * @return The {@link QuickInventory}
+     */
+    public QuickInventory openAll(Collection<? extends Player> players) {
+        for (Player player : players) {
+            this.open(player);
+        }
+        return this;
+    }
+
+    /**
+     * Close the {@link QuickInventory} for every {@link Player} viewing it
+     *
+     * @return The {@link QuickInventory}
+     */
+    public QuickInventory closeAll() {
+        for (HumanEntity viewer : new ArrayList<>(this.inventory.getViewers())) {
+            viewer.closeInventory();
+        }
+        return this;
+    }
+
+    /**
+     * Get the amount of players the {@link QuickInventory} is opened to
+     *
+     * @return The amount of viewers
+     */
+    public int getViewerCount() {
+        return this.viewers.get();
+    }
+
+    /**
+     * Prepare the items of the {@link QuickInventory} on an {@link Executor}, then open it to a {@link Player}
+     * back on the server thread. The changes staged by the preparation are committed on the server thread,
+     * right before the inventory is opened, and only overwrite the staged slots. Must be called from the server thread
+     *
+     * @param player      The player to open the inventory
+     * @param executor    The {@link Executor} running the preparation
+     * @param preparation The slow part of the building (database lookups, item building...), staged in a {@link QuickTransaction}
+     * @return A {@link CompletableFuture} completed with the {@link QuickInventory} once opened
+     */
+    public CompletableFuture<QuickInventory> openAsync(Player player, Executor executor, Consumer<QuickTransaction> preparation) {
+        final QuickTransaction transaction = new QuickTransaction(this);
+        return CompletableFuture.runAsync(() -> preparation.accept(transaction), executor)
+                .thenApplyAsync(ignored -> {
+                    transaction.commit();
+                    if (player.isOnline())
+                        this.open(player);
+                    return this;
+                }, QuickInventoryManager.getMainThreadExecutor());
+    }
+
+    /**
+     * Prepare the items of the {@link QuickInventory} with {@link QuickInventory#prepare(QuickTransaction)} on an {@link Executor},
+     * then open it to a {@link Player} back on the server thread. Must be called from the server thread
+     *
+     * @param player   The player to open the inventory
+     * @param executor The {@link Executor} running the preparation
+     * @return A {@link CompletableFuture} completed with the {@link QuickInventory} once opened
+     * @see QuickInventory#openAsync(Player, Executor, Consumer)
+     */
+    public CompletableFuture<QuickInventory> openAsync(Player player, Executor executor) {
+        return this.openAsync(player, executor, this::prepare);
+    }
+
+    /**
+     * Override to stage the slow part of the building when the {@link QuickInventory} is opened with
+     * {@link QuickInventory#openAsync(Player, Executor)}. Runs off the server thread
+     *
+     * @param transaction The {@link QuickTransaction} to stage the items in
+     */
+    protected void prepare(QuickTransaction transaction) {
+    }
+
     /**
      * Static method to open a {@link QuickInventory} to a {@link Player}
      *
@@ -295,13 +812,397 @@ public class QuickInventory implements InventoryHolder {
         return quickInventory.open(player);
     }
 
+    /**
+     * Count a new viewer
+     *
+     * @return The amount of viewers, including the new one
+     */
+    int addViewer() {
+        return this.viewers.incrementAndGet();
+    }
+
+    /**
+     * Count a viewer leaving, never going under 0 if the inventory was opened without {@link QuickInventory#open(Player)}
+     *
+     * @return The amount of remaining viewers
+     */
+    int removeViewer() {
+        int current;
+        do {
+            current = this.viewers.get();
+            if (current == 0)
+                return 0;
+        } while (!this.viewers.compareAndSet(current, current - 1));
+        return current - 1;
+    }
+
+    /**
+     * Schedule the live slots and animations, when the first viewer opens the {@link QuickInventory}
+     */
+    void startSlotTasks() {
+        if (this.slotTasks == null)
+            return;
+        TimingWheel timingWheel = QuickInventoryManager.getTimingWheel();
+        for (TimingWheel.Task task : this.slotTasks) {
+            if (task != null)
+                timingWheel.schedule(task, task.getDeadline());
+        }
+    }
+
+    /**
+     * Cancel the live slots and animations, when the last viewer closes the {@link QuickInventory}
+     */
+    void stopSlotTasks() {
+        if (this.slotTasks == null)
+            return;
+        TimingWheel timingWheel = QuickInventoryManager.getTimingWheel();
+        for (TimingWheel.Task task : this.slotTasks) {
+            if (task != null)
+                timingWheel.cancel(task);
+        }
+    }
+
+    /**
+     * Copy a live slot or an animation
+     *
+     * @param task The task to copy, may be null
+     * @return An unscheduled copy of the task, null if there is none
+     */
+    private static TimingWheel.Task copySlotTask(TimingWheel.Task task) {
+        if (task instanceof LiveSlot)
+            return ((LiveSlot) task).copy();
+        if (task instanceof SlotAnimation)
+            return ((SlotAnimation) task).copy();
+        return null;
+    }
+
+    /**
+     * Stop the live slot or animation of a slot, when a {@link QuickTransaction} overwrites its item
+     *
+     * @param slot The slot
+     */
+    void cancelSlotTask(int slot) {
+        if (this.slotTasks != null && this.slotTasks[slot] != null)
+            this.setSlotTask(slot, null);
+    }
+
+    /**
+     * Replace the live slot or animation of a slot, scheduling the new one right away if the {@link QuickInventory} is opened
+     *
+     * @param slot The slot
+     * @param task The new task, null to only remove the previous one
+     * @return The {@link QuickInventory}
+     */
+    private QuickInventory setSlotTask(int slot, TimingWheel.Task task) {
+        if (this.slotTasks == null) {
+            if (task == null)
+                return this;
+            this.slotTasks = new TimingWheel.Task[this.inventory.getSize()];
+        }
+
+        TimingWheel timingWheel = QuickInventoryManager.getTimingWheel();
+        if (this.slotTasks[slot] != null)
+            timingWheel.cancel(this.slotTasks[slot]);
+        this.slotTasks[slot] = task;
+        if (task != null && this.getViewerCount() > 0)
+            timingWheel.schedule(task, task.getDeadline());
+        return this;
+    }
+
+    /**
+     * Resend the contents of the {@link QuickInventory} to every {@link Player} viewing it
+     */
+    protected void updateViewers() {
+        for (HumanEntity viewer : this.inventory.getViewers()) {
+            if (viewer instanceof Player)
+                ((Player) viewer).updateInventory();
+        }
+    }
+
     @Override
     public Inventory getInventory() {
         return this.inventory;
     }
 
+    /**
+     * Resolve the action bound to a slot for a {@link ClickType}
+     *
+     * @param slot      The clicked slot
+     * @param clickType The {@link ClickType} of the click
+     * @return The action to perform, or null if there is none
+     */
+    protected Consumer<InventoryClickEvent> getAction(int slot, ClickType clickType) {
+        if (slot < 0 || slot >= this.actions.length)
+            return null;
+        if (this.clickTypeActions != null) {
+            Consumer<InventoryClickEvent> action = this.clickTypeActions[slot * CLICK_TYPES + clickType.ordinal()];
+            if (action != null)
+                return action;
+        }
+        return this.actions[slot];
+    }
+
+    QuickInventoryMetrics.InventoryMetrics getMetrics() {
+        if (this.metrics == null)
+            this.metrics = QuickInventoryManager.getMetrics().of(this.getClass());
+        return this.metrics;
+    }
+
+    private SlotBatch getSlotBatch() {
+        if (this.slotBatch == null)
+            this.slotBatch = new SlotBatch(this.inventory);
+        return this.slotBatch;
+    }
+
+    SlotCooldowns getClickCooldowns() {
+        if (this.clickCooldowns == null)
+            this.clickCooldowns = new SlotCooldowns(this.inventory.getSize());
+        return this.clickCooldowns;
+    }
+
+    /**
+     * Check if a cooldown was set or a click was throttled on the {@link QuickInventory}
+     *
+     * @return True if the {@link SlotCooldowns} is allocated
+     */
+    boolean hasClickCooldowns() {
+        return this.clickCooldowns != null;
+    }
+
+    /**
+     * Put an item in the placeable slots, filling the similar stacks first then the empty slots
+     *
+     * @param item The item to put, left unchanged
+     * @return The amount of items that did not fit
+     */
+    int insert(ItemStack item) {
+        int remaining = item.getAmount();
+        if (this.placeable == null)
+            return remaining;
+
+        final int maxStackSize = Math.min(item.getMaxStackSize(), this.inventory.getMaxStackSize());
+        for (int slot = nextBit(this.placeable, 0); slot >= 0 && remaining > 0; slot = nextBit(this.placeable, slot + 1)) {
+            ItemStack current = this.inventory.getItem(slot);
+            if (current == null || current.getAmount() >= maxStackSize || !current.isSimilar(item))
+                continue;
+            int added = Math.min(remaining, maxStackSize - current.getAmount());
+            current.setAmount(current.getAmount() + added);
+            this.inventory.setItem(slot, current);
+            remaining -= added;
+        }
+        for (int slot = nextBit(this.placeable, 0); slot >= 0 && remaining > 0; slot = nextBit(this.placeable, slot + 1)) {
+            ItemStack current = this.inventory.getItem(slot);
+            if (current != null && current.getType() != Material.AIR)
+                continue;
+            ItemStack stack = item.clone();
+            stack.setAmount(Math.min(remaining, maxStackSize));
+            this.inventory.setItem(slot, stack);
+            remaining -= stack.getAmount();
+        }
+        return remaining;
+    }
+
+    /**
+     * Check if collecting items similar to the cursor to it would only take from takeable slots
+     *
+     * @param cursor The item on the cursor
+     * @return True if no locked slot holds a similar item
+     */
+    boolean canCollect(ItemStack cursor) {
+        if (cursor == null)
+            return true;
+        for (int slot = 0; slot < this.inventory.getSize(); slot++) {
+            if (!this.isTakeable(slot) && cursor.isSimilar(this.inventory.getItem(slot)))
+                return false;
+        }
+        return true;
+    }
+
+    long[] getTakeable() {
+        return this.takeable;
+    }
+
+    long[] getPlaceable() {
+        return this.placeable;
+    }
+
+    /**
+     * Return the actions run for any click, by slot. Putting or removing an action goes through {@link QuickInventory#setAction(int, Consumer)}
+     *
+     * @return A live view of the actions, the slots without one are absent
+     * @deprecated The actions are stored by slot in an array since {@link ClickType} specific actions were added,
+     * use {@link QuickInventory#getAction(int, ClickType)} and {@link QuickInventory#setAction(int, Consumer)}
+     */
+    @Deprecated
     protected Map<Integer, Consumer<InventoryClickEvent>> getActions() {
+        return new ActionMap();
+    }
+
+    Consumer<InventoryClickEvent>[] getActionTable() {
         return this.actions;
     }
 
+    Consumer<InventoryClickEvent>[] getClickTypeActions() {
+        return this.clickTypeActions;
+    }
+
+    /**
+     * The map view returned by {@link QuickInventory#getActions()}, reading and writing the action table
+     */
+    private final class ActionMap extends AbstractMap<Integer, Consumer<InventoryClickEvent>> {
+
+        @Override
+        public Consumer<InventoryClickEvent> get(Object key) {
+            if (!(key instanceof Integer))
+                return null;
+            int slot = (Integer) key;
+            return slot < 0 || slot >= QuickInventory.this.actions.length ? null : QuickInventory.this.actions[slot];
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return this.get(key) != null;
+        }
+
+        @Override
+        public Consumer<InventoryClickEvent> put(Integer slot, Consumer<InventoryClickEvent> action) {
+            Consumer<InventoryClickEvent> previous = this.get(slot);
+            QuickInventory.this.setAction(slot, action);
+            return previous;
+        }
+
+        @Override
+        public Consumer<InventoryClickEvent> remove(Object key) {
+            Consumer<InventoryClickEvent> previous = this.get(key);
+            if (previous != null)
+                QuickInventory.this.setAction((Integer) key, null);
+            return previous;
+        }
+
+        @Override
+        public Set<Entry<Integer, Consumer<InventoryClickEvent>>> entrySet() {
+            return new AbstractSet<Entry<Integer, Consumer<InventoryClickEvent>>>() {
+                @Override
+                public Iterator<Entry<Integer, Consumer<InventoryClickEvent>>> iterator() {
+                    return new Iterator<Entry<Integer, Consumer<InventoryClickEvent>>>() {
+                        private int next = this.find(0);
+                        private int last = -1;
+
+                        private int find(int from) {
+                            Consumer<InventoryClickEvent>[] actions = QuickInventory.this.actions;
+                            while (from < actions.length && actions[from] == null)
+                                from++;
+                            return from;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return this.next < QuickInventory.this.actions.length;
+                        }
+
+                        @Override
+                        public Entry<Integer, Consumer<InventoryClickEvent>> next() {
+                            if (!this.hasNext())
+                                throw new NoSuchElementException();
+                            this.last = this.next;
+                            this.next = this.find(this.next + 1);
+                            return new SimpleImmutableEntry<>(this.last, QuickInventory.this.actions[this.last]);
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (this.last < 0)
+                                throw new IllegalStateException();
+                            QuickInventory.this.setAction(this.last, null);
+                            this.last = -1;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    int size = 0;
+                    for (Consumer<InventoryClickEvent> action : QuickInventory.this.actions) {
+                        if (action != null)
+                            size++;
+                    }
+                    return size;
+                }
+            };
+        }
+
+    }
+
+    private void ensureOwnActions() {
+        if (!this.sharedActions)
+            return;
+        this.actions = this.actions.clone();
+        if (this.clickTypeActions != null)
+            this.clickTypeActions = this.clickTypeActions.clone();
+        this.sharedActions = false;
+    }
+
+    /**
+     * Wrap an action run off the server thread. The clicked {@link QuickInventory} is read from the event so the action
+     * can be shared through a {@link QuickInventoryTemplate}
+     *
+     * @param action The action to run off the server thread
+     * @return An action copying the click and submitting the action
+     */
+    private static Consumer<InventoryClickEvent> asyncAction(Consumer<ClickContext> action) {
+        return e -> {
+            e.setCancelled(true);
+            ClickContext context = ClickContext.of(QuickInventoryManager.getOpenedInventory(e.getWhoClicked(), e.getInventory()), e);
+            QuickInventoryManager.runAsync(() -> action.accept(context));
+        };
+    }
+
+    private static void setBit(long[] mask, int slot, boolean value) {
+        if (value)
+            mask[slot >>> 6] |= 1L << slot;
+        else
+            mask[slot >>> 6] &= ~(1L << slot);
+    }
+
+    private static boolean testBit(long[] mask, int slot) {
+        return mask != null && slot >= 0 && slot >>> 6 < mask.length && (mask[slot >>> 6] & 1L << slot) != 0;
+    }
+
+    private static int nextBit(long[] mask, int from) {
+        int index = from >>> 6;
+        if (index >= mask.length)
+            return -1;
+        long word = mask[index] & -1L << from;
+        while (true) {
+            if (word != 0)
+                return (index << 6) + Long.numberOfTrailingZeros(word);
+            if (++index == mask.length)
+                return -1;
+            word = mask[index];
+        }
+    }
+
+    static int[] borderSlots(int size) {
+        return BORDER_SLOTS.computeIfAbsent(size, key -> IntStream.range(0, size)
+                .filter(i -> size < 27 || i < 9 || i % 9 == 0 || (i - 8) % 9 == 0 || i > size - 9)
+                .toArray());
+    }
+
+    static int[] cornerSlots(int size) {
+        return CORNER_SLOTS.computeIfAbsent(size, key -> IntStream.range(0, size)
+                .filter(i -> i < 2 || (i > 6 && i < 10) || i == 17 || i == size - 18 || (i > size - 11 && i < size - 7) || i > size - 3)
+                .toArray());
+    }
+
+    static Inventory createInventory(InventoryHolder holder, InventoryType inventoryType, String title, int size) {
+        if (inventoryType == InventoryType.CHEST)
+            return Bukkit.createInventory(holder, size, title);
+        return Bukkit.createInventory(holder, inventoryType, title);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Consumer<InventoryClickEvent>[] newActionTable(int size) {
+        return (Consumer<InventoryClickEvent>[]) new Consumer[size];
+    }
+
 }
\ No newline at end of file
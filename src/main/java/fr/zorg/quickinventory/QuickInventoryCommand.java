@@ -0,0 +1,120 @@
+package fr.zorg.quickinventory;
+
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Diagnostics command of QuickInventory, bind it to a command declared in your plugin.yml:
+ * {@code getCommand("quickinventory").setExecutor(new QuickInventoryCommand());}
+ * <ul>
+ *     <li>{@code metrics} shows the metrics</li>
+ *     <li>{@code metrics dump} writes the metrics to a file in the plugin folder</li>
+ *     <li>{@code metrics reset} resets the metrics</li>
+ *     <li>{@code sessions} shows the oldest opened inventories and the suspected leaks by {@link QuickInventory} subclass</li>
+ *     <li>{@code sessions reset} resets the suspected leaks counts</li>
+ * </ul>
+ *
+ * @author <a href="https://github.com/ZorgBtw">Zorg</a>
+ */
+public class QuickInventoryCommand implements CommandExecutor {
+
+    /**
+     * Amount of sessions shown by the {@code sessions} subcommand
+     */
+    private static final int SHOWN_SESSIONS = 10;
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (args.length > 0 && args[0].equalsIgnoreCase("sessions"))
+            return this.onSessions(sender, args);
+        if (args.length == 0 || !args[0].equalsIgnoreCase("metrics"))
+            return false;
+
+        QuickInventoryMetrics metrics = QuickInventoryManager.getMetrics();
+        if (args.length == 1) {
+            for (String line : metrics.format()) {
+                sender.sendMessage(line);
+            }
+            return true;
+        }
+
+        if (args[1].equalsIgnoreCase("reset")) {
+            metrics.reset();
+            sender.sendMessage("QuickInventory metrics reset");
+            return true;
+        }
+
+        if (args[1].equalsIgnoreCase("dump")) {
+            Path path = QuickInventoryManager.getPlugin().getDataFolder().toPath()
+                    .resolve("quickinventory-metrics-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".txt");
+            try {
+                metrics.dump(path);
+                metrics.dump(QuickInventoryManager.getPlugin().getLogger());
+                sender.sendMessage("QuickInventory metrics written to " + path);
+            } catch (IOException e) {
+                sender.sendMessage("Could not write the QuickInventory metrics: " + e.getMessage());
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private boolean onSessions(CommandSender sender, String[] args) {
+        if (args.length > 1) {
+            if (!args[1].equalsIgnoreCase("reset"))
+                return false;
+            QuickInventoryManager.resetLeaks();
+            sender.sendMessage("QuickInventory leaks reset");
+            return true;
+        }
+
+        for (String line : formatSessions()) {
+            sender.sendMessage(line);
+        }
+        return true;
+    }
+
+    /**
+     * Format the oldest sessions and the suspected leaks, the most frequent first
+     *
+     * @return The formatted lines
+     */
+    static List<String> formatSessions() {
+        List<String> lines = new ArrayList<>();
+        List<QuickInventorySession> sessions = QuickInventoryManager.getSessions();
+        lines.add("Sessions: " + sessions.size() + " (" + QuickInventoryManager.getTrackedInventories() + " inventories)");
+        for (int i = 0; i < Math.min(SHOWN_SESSIONS, sessions.size()); i++) {
+            QuickInventorySession session = sessions.get(i);
+            lines.add(String.format("  %s %s opened %s ago%s", session.getPlayerName(), session.getInventoryClass().getName(),
+                    formatDuration(session.getAge()), session.getInventory() == null ? " (collected)" : ""));
+        }
+
+        List<Map.Entry<Class<? extends QuickInventory>, Long>> leaks = new ArrayList<>(QuickInventoryManager.getLeaks().entrySet());
+        leaks.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+        lines.add("Suspected leaks: " + leaks.stream().mapToLong(Map.Entry::getValue).sum());
+        for (Map.Entry<Class<? extends QuickInventory>, Long> entry : leaks) {
+            lines.add("  " + entry.getKey().getName() + " " + entry.getValue());
+        }
+        return lines;
+    }
+
+    private static String formatDuration(long millis) {
+        long seconds = TimeUnit.MILLISECONDS.toSeconds(millis);
+        if (seconds < 60)
+            return seconds + "s";
+        if (seconds < 3600)
+            return seconds / 60 + "m" + seconds % 60 + "s";
+        return seconds / 3600 + "h" + seconds / 60 % 60 + "m";
+    }
+
+}
@@ -1,51 +1,684 @@
 package fr.zorg.quickinventory;
 
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.event.server.ServiceUnregisterEvent;
 import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
-public class QuickInventoryManager implements Listener {
+public class QuickInventoryManager {
 
-    private static Map<Inventory, QuickInventory> inventoryList;
+    /**
+     * {@link QuickInventory} opened to each player. A {@link QuickInventory} opened to multiple players has one session per player,
+     * its live slots run until the last of them ends
+     */
+    private static final Map<UUID, QuickInventorySession> sessions = new ConcurrentHashMap<>();
 
-    public static void register(JavaPlugin javaPlugin) {
-        javaPlugin.getServer().getPluginManager().registerEvents(new QuickInventoryManager(), javaPlugin);
-        inventoryList = new HashMap<>();
+    /**
+     * Sessions ended without their {@link InventoryCloseEvent}, by {@link QuickInventory} subclass
+     */
+    private static final Map<Class<? extends QuickInventory>, LongAdder> leaks = new ConcurrentHashMap<>();
+
+    /**
+     * Live slots and animations of the opened {@link QuickInventory}, advanced by the single tick task
+     */
+    private static final TimingWheel timingWheel = new TimingWheel(512);
+
+    /**
+     * Runs tasks on the server thread, directly if already on it
+     */
+    private static final Executor mainThreadExecutor = runnable -> {
+        if (Bukkit.isPrimaryThread())
+            runnable.run();
+        else
+            Bukkit.getScheduler().runTask(getPlugin(), runnable);
+    };
+
+    /**
+     * The {@link QuickMenuRegistry} watching their folder, closed with the plugin owning them
+     */
+    private static final Set<QuickMenuRegistry> menuRegistries = ConcurrentHashMap.newKeySet();
+
+    private static final ClickThrottle clickThrottle = new ClickThrottle();
+    private static final QuickInventoryMetrics metrics = new QuickInventoryMetrics();
+    private static final QuickInventorySessionCache sessionCache = new QuickInventorySessionCache();
+
+    /**
+     * Ticks between two removals of the expired cached sessions
+     */
+    private static final long SESSION_CLEANUP_INTERVAL = 1200L;
+
+    /**
+     * Ticks between two checks of the tracked sessions against the inventories actually opened
+     */
+    private static final long SESSION_SWEEP_INTERVAL = 200L;
+
+    /**
+     * Runs the actions set with {@link QuickInventory#setSlotAsync(int, ItemStack, Consumer)}, created on first use
+     */
+    private static volatile Executor asyncExecutor;
+
+    private static final Class<?>[] ATTACH_PARAMETERS = {Plugin.class, Class.class, Consumer.class};
+    private static final Class<?>[] DETACH_PARAMETERS = {Class.class};
+
+    private static JavaPlugin plugin;
+    private static QuickInventoryManager listener;
+    private static BukkitTask tickTask;
+    private static long currentTick;
+
+    /**
+     * The {@link QuickInventoryRegistry} this copy of the library is attached to, of any copy
+     */
+    private static Object registry;
+    private static Plugin registryOwner;
+
+    /**
+     * Attach QuickInventory to the {@link QuickInventoryRegistry} shared by every plugin, registering it if this plugin is the first one,
+     * and start the tick task. Registering again with the same plugin does nothing, registering with another one moves them to it
+     *
+     * @param javaPlugin The plugin to register with
+     */
+    public static synchronized void register(JavaPlugin javaPlugin) {
+        if (javaPlugin == plugin && registry != null)
+            return;
+        detach();
+        plugin = javaPlugin;
+        listener = new QuickInventoryManager();
+        attach();
+        if (tickTask != null)
+            tickTask.cancel();
+        tickTask = javaPlugin.getServer().getScheduler().runTaskTimer(javaPlugin, QuickInventoryManager::tick, 1L, 1L);
     }
 
     public static void register(Class<JavaPlugin> javaPluginClazz) {
         QuickInventoryManager.register(JavaPlugin.getPlugin(javaPluginClazz));
     }
 
-    protected static void addListener(Inventory inventory, QuickInventory quickInventory) {
-        inventoryList.put(inventory, quickInventory);
+    /**
+     * Close every tracked {@link QuickInventory}, drop the cached ones and stop the tick task.
+     * Called when the registered plugin is disabled, {@link QuickInventoryManager#register(JavaPlugin)} may be called again afterwards
+     */
+    public static synchronized void unregister() {
+        closeSessions(session -> true);
+        sessionCache.invalidateAll();
+        closeMenuRegistries(menuRegistry -> true);
+        detach();
+        listener = null;
+        if (tickTask != null)
+            tickTask.cancel();
+        tickTask = null;
+        plugin = null;
+    }
+
+    /**
+     * Attach the listener to the shared {@link QuickInventoryRegistry}
+     */
+    private static void attach() {
+        final QuickInventoryManager handler = listener;
+        registry = QuickInventoryRegistry.findOrCreate(plugin);
+        Consumer<Event> consumer = handler::handle;
+        if (!(Boolean) QuickInventoryRegistry.invoke(registry, "attach", ATTACH_PARAMETERS, plugin, QuickInventory.class, consumer))
+            throw new IllegalStateException("The registered QuickInventory registry is closed");
+        registryOwner = (Plugin) QuickInventoryRegistry.invoke(registry, "getOwner", new Class<?>[0]);
+    }
+
+    private static void detach() {
+        if (registry == null)
+            return;
+        QuickInventoryRegistry.invoke(registry, "detach", DETACH_PARAMETERS, QuickInventory.class);
+        registry = null;
+        registryOwner = null;
+    }
+
+    /**
+     * Attach to a new {@link QuickInventoryRegistry} once the current one is closed, the first plugin doing so becomes its owner
+     */
+    private static synchronized void reattach() {
+        registry = null;
+        registryOwner = null;
+        if (plugin != null && plugin.isEnabled())
+            attach();
+    }
+
+    /**
+     * Get the {@link Plugin} owning the {@link QuickInventoryRegistry} shared by every plugin using QuickInventory
+     *
+     * @return The owner of the registry, null if not registered
+     */
+    public static Plugin getRegistryOwner() {
+        return registryOwner;
+    }
+
+    /**
+     * Track a {@link QuickInventory} opened to a player. A session the player still had was missed by {@link QuickInventoryManager#onClose(InventoryCloseEvent)},
+     * it is ended and counted as a leak
+     *
+     * @param quickInventory The opened {@link QuickInventory}
+     * @param player         The player it was opened to
+     */
+    static void addListener(QuickInventory quickInventory, Player player) {
+        QuickInventorySession previous = sessions.put(player.getUniqueId(), new QuickInventorySession(player, quickInventory));
+        if (previous != null)
+            leak(previous);
+        if (metrics.isEnabled())
+            quickInventory.getMetrics().open();
+        if (quickInventory.addViewer() == 1)
+            quickInventory.startSlotTasks();
+    }
+
+    /**
+     * Find the {@link QuickInventory} a player looks at: the one of their session while its inventory is still opened,
+     * as the holder of the inventory is another {@link QuickInventory} after {@link QuickInventory#setInventory(QuickInventory)},
+     * or else the holder
+     *
+     * @param player    The player
+     * @param inventory The top inventory of the player
+     * @return The opened {@link QuickInventory}, null if the inventory is not one
+     */
+    static QuickInventory getOpenedInventory(HumanEntity player, Inventory inventory) {
+        QuickInventorySession session = sessions.get(player.getUniqueId());
+        QuickInventory quickInventory = session != null && session.isViewing(inventory) ? session.getInventory() : null;
+        if (quickInventory != null)
+            return quickInventory;
+        InventoryHolder holder = inventory.getHolder();
+        return holder instanceof QuickInventory ? (QuickInventory) holder : null;
+    }
+
+    /**
+     * Track a {@link QuickMenuRegistry} watching its folder, so it stops when its plugin is disabled
+     *
+     * @param menuRegistry The {@link QuickMenuRegistry}
+     */
+    static void addMenuRegistry(QuickMenuRegistry menuRegistry) {
+        menuRegistries.add(menuRegistry);
+    }
+
+    static void removeMenuRegistry(QuickMenuRegistry menuRegistry) {
+        menuRegistries.remove(menuRegistry);
+    }
+
+    static TimingWheel getTimingWheel() {
+        return timingWheel;
+    }
+
+    /**
+     * Get the {@link Logger} of the registered plugin, or the server one if it is not registered yet
+     *
+     * @return The {@link Logger} to report failures
+     */
+    static Logger getLogger() {
+        return plugin == null ? Bukkit.getLogger() : plugin.getLogger();
+    }
+
+    /**
+     * Get the {@link JavaPlugin} the {@link QuickInventoryManager} is registered with
+     *
+     * @return The registered {@link JavaPlugin}
+     * @throws IllegalStateException If {@link QuickInventoryManager#register(JavaPlugin)} was not called
+     */
+    public static JavaPlugin getPlugin() {
+        if (plugin == null)
+            throw new IllegalStateException("QuickInventoryManager is not registered");
+        return plugin;
+    }
+
+    /**
+     * Get the {@link ClickThrottle} applied to every click bound to an action
+     *
+     * @return The {@link ClickThrottle}
+     */
+    public static ClickThrottle getClickThrottle() {
+        return clickThrottle;
+    }
+
+    /**
+     * Get the {@link QuickInventoryMetrics} recorded for every {@link QuickInventory} subclass
+     *
+     * @return The {@link QuickInventoryMetrics}
+     */
+    public static QuickInventoryMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Get the {@link QuickInventorySessionCache} keeping the closed inventories of each player, disabled by default
+     *
+     * @return The {@link QuickInventorySessionCache}
+     */
+    public static QuickInventorySessionCache getSessionCache() {
+        return sessionCache;
+    }
+
+    /**
+     * Get an {@link Executor} running tasks on the server thread
+     *
+     * @return The main thread {@link Executor}
+     */
+    public static Executor getMainThreadExecutor() {
+        return mainThreadExecutor;
+    }
+
+    /**
+     * Set the {@link Executor} running the actions set with {@link QuickInventory#setSlotAsync(int, ItemStack, Consumer)}
+     *
+     * @param executor The {@link Executor} to use
+     */
+    public static void setAsyncExecutor(Executor executor) {
+        asyncExecutor = executor;
+    }
+
+    /**
+     * Get the {@link Executor} running the actions set with {@link QuickInventory#setSlotAsync(int, ItemStack, Consumer)}.
+     * Unless set, it runs each action on a virtual thread when the JVM supports them, or on a cached pool of daemon threads
+     *
+     * @return The async {@link Executor}
+     */
+    public static Executor getAsyncExecutor() {
+        Executor executor = asyncExecutor;
+        if (executor != null)
+            return executor;
+        synchronized (QuickInventoryManager.class) {
+            if (asyncExecutor == null)
+                asyncExecutor = createAsyncExecutor();
+            return asyncExecutor;
+        }
+    }
+
+    /**
+     * Run an async action, logging its failure
+     *
+     * @param task The action
+     */
+    static void runAsync(Runnable task) {
+        getAsyncExecutor().execute(() -> {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                getLogger().log(Level.SEVERE, "An async QuickInventory action failed", t);
+            }
+        });
+    }
+
+    private static Executor createAsyncExecutor() {
+        try {
+            return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threadCount = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "QuickInventory async action #" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Get the amount of ticks elapsed since the {@link QuickInventoryManager} was registered
+     *
+     * @return The current tick
+     */
+    public static long getCurrentTick() {
+        return currentTick;
+    }
+
+    private static void tick() {
+        currentTick++;
+        advanceSlotTasks(currentTick);
+        if (currentTick % SESSION_SWEEP_INTERVAL == 0)
+            sweep();
+        if (currentTick % SESSION_CLEANUP_INTERVAL == 0 && sessionCache.isEnabled())
+            sessionCache.cleanUp();
+    }
+
+    /**
+     * Run the live slots and animations due on a tick, the items they change are written once per inventory at the end of the tick
+     *
+     * @param tick The tick
+     */
+    static void advanceSlotTasks(long tick) {
+        SlotBatch.startStaging();
+        try {
+            timingWheel.advance(tick);
+        } finally {
+            SlotBatch.flushStaged();
+        }
+    }
+
+    /**
+     * End the sessions whose player is gone or does not look at their {@link QuickInventory} anymore,
+     * a safety net for the {@link InventoryCloseEvent} never received
+     */
+    static void sweep() {
+        for (Map.Entry<UUID, QuickInventorySession> entry : sessions.entrySet()) {
+            QuickInventorySession session = entry.getValue();
+            QuickInventory quickInventory = session.getInventory();
+            Player player = Bukkit.getPlayer(entry.getKey());
+            if (quickInventory != null && player != null && session.isViewing(player.getOpenInventory().getTopInventory()))
+                continue;
+            if (sessions.remove(entry.getKey(), session))
+                leak(session);
+        }
+    }
+
+    /**
+     * Get the amount of {@link QuickInventory} currently opened with {@link QuickInventory#open(Player)}
+     *
+     * @return The amount of tracked {@link QuickInventory}
+     */
+    public static int getTrackedInventories() {
+        Set<QuickInventory> inventories = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (QuickInventorySession session : sessions.values()) {
+            QuickInventory quickInventory = session.getInventory();
+            if (quickInventory != null)
+                inventories.add(quickInventory);
+        }
+        return inventories.size();
+    }
+
+    /**
+     * Get the tracked sessions, the oldest first
+     *
+     * @return A snapshot of the {@link QuickInventorySession}
+     */
+    public static List<QuickInventorySession> getSessions() {
+        List<QuickInventorySession> list = new ArrayList<>(sessions.values());
+        list.sort(Comparator.comparingLong(QuickInventorySession::getOpenedAt));
+        return list;
+    }
+
+    /**
+     * Get the amount of sessions ended without their {@link InventoryCloseEvent} for each {@link QuickInventory} subclass,
+     * found on player quit, on reopening or by the periodic sweep. A growing count points to a subclass closed in a way
+     * the server does not report
+     *
+     * @return The amount of suspected leaks by {@link QuickInventory} subclass
+     */
+    public static Map<Class<? extends QuickInventory>, Long> getLeaks() {
+        Map<Class<? extends QuickInventory>, Long> map = new IdentityHashMap<>();
+        leaks.forEach((inventoryClass, count) -> map.put(inventoryClass, count.sum()));
+        return map;
+    }
+
+    /**
+     * Reset the suspected leaks counts
+     */
+    public static void resetLeaks() {
+        leaks.clear();
+    }
+
+    /**
+     * Handle an event routed by the {@link QuickInventoryRegistry}
+     *
+     * @param event The event
+     */
+    private void handle(Event event) {
+        if (event instanceof InventoryClickEvent)
+            this.onClick((InventoryClickEvent) event);
+        else if (event instanceof InventoryDragEvent)
+            this.onDrag((InventoryDragEvent) event);
+        else if (event instanceof InventoryCloseEvent)
+            this.onClose((InventoryCloseEvent) event);
+        else if (event instanceof PlayerQuitEvent)
+            this.onQuit((PlayerQuitEvent) event);
+        else if (event instanceof PluginDisableEvent)
+            this.onPluginDisable((PluginDisableEvent) event);
+        else if (event instanceof ServiceUnregisterEvent && ((ServiceUnregisterEvent) event).getProvider().getProvider() == registry)
+            reattach();
     }
 
-    @EventHandler
     public void onClick(InventoryClickEvent e) {
-        if (e.getClickedInventory() == null
-                || !(e.getClickedInventory().getHolder() instanceof QuickInventory)
-                || !inventoryList.containsKey(e.getClickedInventory()))
+        QuickInventory quickInventory = getOpenedInventory(e.getWhoClicked(), e.getInventory());
+        if (quickInventory == null)
+            return;
+
+        if (e.getRawSlot() < 0 || e.getRawSlot() >= e.getInventory().getSize()) {
+            onOutsideClick(quickInventory, e);
             return;
+        }
 
-        e.setCancelled(true);
+        if (!isAllowed(quickInventory, e))
+            e.setCancelled(true);
+
+        QuickInventoryMetrics.InventoryMetrics inventoryMetrics = metrics.isEnabled() ? quickInventory.getMetrics() : null;
+        if (inventoryMetrics != null)
+            inventoryMetrics.click();
+
+        Consumer<InventoryClickEvent> action = quickInventory.getAction(e.getSlot(), e.getClick());
+        if (action == null)
+            return;
+        if ((clickThrottle.isActive() || quickInventory.hasClickCooldowns())
+                && !clickThrottle.tryAcquire(e.getWhoClicked().getUniqueId(), e.getSlot(), quickInventory.getClickCooldowns()))
+            return;
+
+        if (inventoryMetrics == null) {
+            action.accept(e);
+            return;
+        }
 
-        if (inventoryList.containsKey(e.getClickedInventory()) && inventoryList.get(e.getClickedInventory()).getActions().get(e.getSlot()) != null)
-            inventoryList.get(e.getClickedInventory()).getActions().get(e.getSlot()).accept(e);
+        long start = System.nanoTime();
+        try {
+            action.accept(e);
+        } finally {
+            inventoryMetrics.getActionLatency().record(System.nanoTime() - start);
+        }
+    }
+
+    public void onDrag(InventoryDragEvent e) {
+        QuickInventory quickInventory = getOpenedInventory(e.getWhoClicked(), e.getInventory());
+        if (quickInventory == null)
+            return;
+
+        int size = e.getInventory().getSize();
+        for (int rawSlot : e.getRawSlots()) {
+            if (rawSlot < size && !quickInventory.isPlaceable(rawSlot)) {
+                e.setCancelled(true);
+                return;
+            }
+        }
     }
 
-    @EventHandler
     public void onClose(InventoryCloseEvent e) {
-        if (!(e.getInventory().getHolder() instanceof QuickInventory))
+        QuickInventory quickInventory = getOpenedInventory(e.getPlayer(), e.getInventory());
+        if (quickInventory == null)
             return;
-        if (inventoryList.containsKey(e.getInventory()))
-            inventoryList.remove(e.getInventory());
+
+        UUID uuid = e.getPlayer().getUniqueId();
+        if (metrics.isEnabled())
+            quickInventory.getMetrics().close();
+        if (quickInventory.hasClickCooldowns())
+            clickThrottle.expire(uuid, quickInventory.getClickCooldowns());
+        // Only a tracked session counted a viewer, one opened directly or already swept must not stop the others' live slots
+        QuickInventorySession session = sessions.get(uuid);
+        if (session != null && session.isViewing(e.getInventory()) && sessions.remove(uuid, session))
+            release(quickInventory);
+    }
+
+    public void onQuit(PlayerQuitEvent e) {
+        UUID uuid = e.getPlayer().getUniqueId();
+        clickThrottle.forget(uuid);
+        sessionCache.invalidate(uuid);
+        QuickInventorySession session = sessions.remove(uuid);
+        if (session == null)
+            return;
+        QuickInventory quickInventory = session.getInventory();
+        if (quickInventory != null && quickInventory.hasClickCooldowns())
+            quickInventory.getClickCooldowns().forget(uuid);
+        leak(session);
+    }
+
+    public void onPluginDisable(PluginDisableEvent e) {
+        if (e.getPlugin() == plugin) {
+            unregister();
+            return;
+        }
+        if (e.getPlugin() == registryOwner)
+            reattach();
+        ClassLoader classLoader = e.getPlugin().getClass().getClassLoader();
+        closeSessions(session -> session.getInventoryClass().getClassLoader() == classLoader);
+        sessionCache.invalidateIf(quickInventory -> quickInventory.getClass().getClassLoader() == classLoader);
+        closeMenuRegistries(menuRegistry -> menuRegistry.getPlugin() == e.getPlugin());
+        // Let the classes of the plugin be unloaded
+        leaks.keySet().removeIf(inventoryClass -> inventoryClass.getClassLoader() == classLoader);
+        metrics.forget(classLoader);
+    }
+
+    /**
+     * Stop the matching {@link QuickMenuRegistry} watching their folder
+     *
+     * @param filter The registries to close
+     */
+    private static void closeMenuRegistries(Predicate<QuickMenuRegistry> filter) {
+        for (QuickMenuRegistry menuRegistry : menuRegistries) {
+            if (filter.test(menuRegistry))
+                menuRegistry.close();
+        }
+    }
+
+    /**
+     * Close the {@link QuickInventory} of the matching sessions and end them, even if the {@link InventoryCloseEvent} is not received
+     *
+     * @param filter The sessions to close
+     */
+    private static void closeSessions(Predicate<QuickInventorySession> filter) {
+        for (Map.Entry<UUID, QuickInventorySession> entry : sessions.entrySet()) {
+            QuickInventorySession session = entry.getValue();
+            if (!filter.test(session))
+                continue;
+            Player player = Bukkit.getPlayer(entry.getKey());
+            if (player != null)
+                player.closeInventory();
+            if (sessions.remove(entry.getKey(), session)) {
+                QuickInventory quickInventory = session.getInventory();
+                if (quickInventory != null)
+                    release(quickInventory);
+            }
+        }
+    }
+
+    /**
+     * End a session missed by {@link QuickInventoryManager#onClose(InventoryCloseEvent)} and count it as a leak
+     *
+     * @param session The removed session
+     */
+    private static void leak(QuickInventorySession session) {
+        leaks.computeIfAbsent(session.getInventoryClass(), inventoryClass -> new LongAdder()).increment();
+        QuickInventory quickInventory = session.getInventory();
+        if (quickInventory != null)
+            release(quickInventory);
+    }
+
+    /**
+     * Remove a viewer of a {@link QuickInventory}, stopping its live slots after the last one
+     *
+     * @param quickInventory The {@link QuickInventory}
+     */
+    private static void release(QuickInventory quickInventory) {
+        if (quickInventory.removeViewer() == 0)
+            quickInventory.stopSlotTasks();
+    }
+
+    /**
+     * Check a click in the {@link QuickInventory} against the takeable and placeable slots
+     *
+     * @param quickInventory The clicked {@link QuickInventory}
+     * @param e              The click
+     * @return True if the click may move items
+     */
+    private static boolean isAllowed(QuickInventory quickInventory, InventoryClickEvent e) {
+        int slot = e.getSlot();
+        switch (e.getAction()) {
+            case PICKUP_ALL:
+            case PICKUP_SOME:
+            case PICKUP_HALF:
+            case PICKUP_ONE:
+            case DROP_ALL_SLOT:
+            case DROP_ONE_SLOT:
+            case MOVE_TO_OTHER_INVENTORY:
+            case CLONE_STACK:
+                return quickInventory.isTakeable(slot);
+            case PLACE_ALL:
+            case PLACE_SOME:
+            case PLACE_ONE:
+                return quickInventory.isPlaceable(slot);
+            case SWAP_WITH_CURSOR:
+            case HOTBAR_MOVE_AND_READD:
+                return quickInventory.isTakeable(slot) && quickInventory.isPlaceable(slot);
+            case HOTBAR_SWAP:
+                ItemStack hotbarItem = e.getWhoClicked().getInventory().getItem(e.getHotbarButton());
+                return (isEmpty(e.getCurrentItem()) || quickInventory.isTakeable(slot))
+                        && (isEmpty(hotbarItem) || quickInventory.isPlaceable(slot));
+            case COLLECT_TO_CURSOR:
+                return quickInventory.canCollect(e.getCursor());
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Handle a click outside the {@link QuickInventory} which may still move items in it:
+     * a shift-click in the player inventory only fills the placeable slots, a double-click only collects from the takeable ones
+     *
+     * @param quickInventory The opened {@link QuickInventory}
+     * @param e              The click
+     */
+    private static void onOutsideClick(QuickInventory quickInventory, InventoryClickEvent e) {
+        switch (e.getAction()) {
+            case MOVE_TO_OTHER_INVENTORY:
+                e.setCancelled(true);
+                ItemStack item = e.getCurrentItem();
+                if (isEmpty(item))
+                    return;
+                int remaining = quickInventory.insert(item);
+                if (remaining == item.getAmount())
+                    return;
+                if (remaining == 0) {
+                    e.setCurrentItem(null);
+                } else {
+                    item.setAmount(remaining);
+                    e.setCurrentItem(item);
+                }
+                break;
+            case COLLECT_TO_CURSOR:
+                if (!quickInventory.canCollect(e.getCursor()))
+                    e.setCancelled(true);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static boolean isEmpty(ItemStack item) {
+        return item == null || item.getType() == Material.AIR;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,205 @@
+package fr.zorg.quickinventory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Opens, closes, clicks and action latency of each {@link QuickInventory} subclass, recorded by {@link QuickInventoryManager}
+ *
+ * @author <a href="https://github.com/ZorgBtw">Zorg</a>
+ * @see QuickInventoryManager#getMetrics()
+ */
+public final class QuickInventoryMetrics {
+
+    private final Map<Class<? extends QuickInventory>, InventoryMetrics> inventories = new ConcurrentHashMap<>();
+    private volatile boolean enabled = true;
+
+    QuickInventoryMetrics() {
+    }
+
+    /**
+     * Enable or disable the recording, enabled by default
+     *
+     * @param enabled If the metrics should be recorded
+     * @return The {@link QuickInventoryMetrics}
+     */
+    public QuickInventoryMetrics setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        return this;
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Get the metrics of a {@link QuickInventory} subclass
+     *
+     * @param inventoryClass The {@link QuickInventory} subclass
+     * @return The {@link InventoryMetrics} of this class
+     */
+    public InventoryMetrics of(Class<? extends QuickInventory> inventoryClass) {
+        return this.inventories.computeIfAbsent(inventoryClass, InventoryMetrics::new);
+    }
+
+    /**
+     * Forget the metrics of the {@link QuickInventory} subclasses of a disabled plugin, so its classes can be unloaded
+     *
+     * @param classLoader The class loader of the plugin
+     */
+    void forget(ClassLoader classLoader) {
+        this.inventories.keySet().removeIf(inventoryClass -> inventoryClass.getClassLoader() == classLoader);
+    }
+
+    /**
+     * Get the metrics of every {@link QuickInventory} subclass, the slowest actions first
+     *
+     * @return The {@link InventoryMetrics} of every recorded class
+     */
+    public List<InventoryMetrics> getAll() {
+        List<InventoryMetrics> all = new ArrayList<>(this.inventories.values());
+        all.sort(Comparator.comparingLong((InventoryMetrics metrics) -> metrics.getActionLatency().getMax()).reversed());
+        return all;
+    }
+
+    /**
+     * Reset every recorded metric
+     */
+    public void reset() {
+        for (InventoryMetrics metrics : this.inventories.values()) {
+            metrics.reset();
+        }
+    }
+
+    /**
+     * Format the metrics, one line per {@link QuickInventory} subclass
+     *
+     * @return The formatted lines
+     */
+    public List<String> format() {
+        List<String> lines = new ArrayList<>();
+        lines.add("Tracked inventories: " + QuickInventoryManager.getTrackedInventories());
+        QuickInventorySessionCache sessionCache = QuickInventoryManager.getSessionCache();
+        if (sessionCache.isEnabled())
+            lines.add(String.format("Session cache: size=%d hits=%d misses=%d evictions=%d hitRate=%.1f%%",
+                    sessionCache.getSize(), sessionCache.getHits(), sessionCache.getMisses(), sessionCache.getEvictions(),
+                    sessionCache.getHitRate() * 100));
+        for (InventoryMetrics metrics : this.getAll()) {
+            LatencyHistogram latency = metrics.getActionLatency();
+            lines.add(String.format("%s opens=%d closes=%d clicks=%d actions=%d p50=%s p99=%s max=%s",
+                    metrics.getInventoryClass().getName(),
+                    metrics.getOpens(), metrics.getCloses(), metrics.getClicks(), latency.getCount(),
+                    formatNanos(latency.getPercentile(50)), formatNanos(latency.getPercentile(99)), formatNanos(latency.getMax())));
+        }
+        return lines;
+    }
+
+    /**
+     * Write the metrics to a {@link Logger}
+     *
+     * @param logger The {@link Logger} to write to
+     */
+    public void dump(Logger logger) {
+        for (String line : this.format()) {
+            logger.info(line);
+        }
+    }
+
+    /**
+     * Write the metrics to a file
+     *
+     * @param path The file to write, replaced if it exists
+     * @throws IOException If the file can't be written
+     */
+    public void dump(Path path) throws IOException {
+        if (path.getParent() != null)
+            Files.createDirectories(path.getParent());
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (String line : this.format()) {
+                writer.write(line);
+                writer.write(System.lineSeparator());
+            }
+        }
+    }
+
+    static String formatNanos(long nanos) {
+        if (nanos < TimeUnit.MICROSECONDS.toNanos(1))
+            return nanos + "ns";
+        if (nanos < TimeUnit.MILLISECONDS.toNanos(1))
+            return String.format("%.1fus", nanos / 1_000D);
+        return String.format("%.2fms", nanos / 1_000_000D);
+    }
+
+    /**
+     * The metrics of one {@link QuickInventory} subclass
+     */
+    public static final class InventoryMetrics {
+
+        private final Class<? extends QuickInventory> inventoryClass;
+        private final LongAdder opens = new LongAdder();
+        private final LongAdder closes = new LongAdder();
+        private final LongAdder clicks = new LongAdder();
+        private final LatencyHistogram actionLatency = new LatencyHistogram();
+
+        private InventoryMetrics(Class<? extends QuickInventory> inventoryClass) {
+            this.inventoryClass = inventoryClass;
+        }
+
+        public Class<? extends QuickInventory> getInventoryClass() {
+            return this.inventoryClass;
+        }
+
+        public long getOpens() {
+            return this.opens.sum();
+        }
+
+        public long getCloses() {
+            return this.closes.sum();
+        }
+
+        public long getClicks() {
+            return this.clicks.sum();
+        }
+
+        /**
+         * Return the time spent in the click actions of this class
+         *
+         * @return The {@link LatencyHistogram} of the actions
+         */
+        public LatencyHistogram getActionLatency() {
+            return this.actionLatency;
+        }
+
+        void open() {
+            this.opens.increment();
+        }
+
+        void close() {
+            this.closes.increment();
+        }
+
+        void click() {
+            this.clicks.increment();
+        }
+
+        private void reset() {
+            this.opens.reset();
+            this.closes.reset();
+            this.clicks.reset();
+            this.actionLatency.reset();
+        }
+
+    }
+
+}
@@ -0,0 +1,240 @@
+package fr.zorg.quickinventory;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.event.server.ServiceUnregisterEvent;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.RegisteredServiceProvider;
+import org.bukkit.plugin.ServicePriority;
+import org.bukkit.plugin.ServicesManager;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * The single listener shared by every plugin shading QuickInventory, exposed through the {@link ServicesManager}.
+ * The first plugin to call {@link QuickInventoryManager#register(org.bukkit.plugin.java.JavaPlugin)} owns it, the others attach
+ * their copy of the library to it, even when relocated: copies find it by its simple name and only exchange Bukkit and JDK types.
+ * Each inventory event is routed to the copy whose {@link QuickInventory} class the holder extends, with a cache by holder class,
+ * so the cost of an event does not grow with the amount of plugins. When the owner is disabled, another attached plugin takes over
+ *
+ * @author <a href="https://github.com/ZorgBtw">Zorg</a>
+ */
+public final class QuickInventoryRegistry implements Listener {
+
+    /**
+     * Route of the holders belonging to no attached copy
+     */
+    private static final Endpoint NO_ROUTE = new Endpoint(null, Void.class, event -> {
+    });
+
+    private final Plugin owner;
+    private final List<Endpoint> endpoints = new CopyOnWriteArrayList<>();
+    private final Map<Class<?>, Endpoint> routes = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    private QuickInventoryRegistry(Plugin owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Attach a copy of QuickInventory, replacing its previous attachment
+     *
+     * @param plugin         The plugin registering the copy
+     * @param inventoryClass The {@link QuickInventory} class of the copy, holders extending it are routed to the handler
+     * @param handler        Receives the inventory events of its holders, and the quit and plugin disable events
+     * @return False if the registry is closed, a new one must be looked up
+     */
+    public boolean attach(Plugin plugin, Class<?> inventoryClass, Consumer<Event> handler) {
+        if (this.closed)
+            return false;
+        this.detach(inventoryClass);
+        this.endpoints.add(new Endpoint(plugin, inventoryClass, handler));
+        this.routes.clear();
+        return true;
+    }
+
+    /**
+     * Detach a copy of QuickInventory
+     *
+     * @param inventoryClass The {@link QuickInventory} class of the copy
+     */
+    public void detach(Class<?> inventoryClass) {
+        if (this.endpoints.removeIf(endpoint -> endpoint.inventoryClass == inventoryClass))
+            this.routes.clear();
+    }
+
+    public Plugin getOwner() {
+        return this.owner;
+    }
+
+    /**
+     * Get the amount of attached copies of QuickInventory
+     *
+     * @return The amount of attached copies
+     */
+    public int getAttachedCount() {
+        return this.endpoints.size();
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onClick(InventoryClickEvent e) {
+        this.route(e.getInventory().getHolder()).handler.accept(e);
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onDrag(InventoryDragEvent e) {
+        this.route(e.getInventory().getHolder()).handler.accept(e);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onClose(InventoryCloseEvent e) {
+        this.route(e.getInventory().getHolder()).handler.accept(e);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent e) {
+        this.broadcast(e);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginDisable(PluginDisableEvent e) {
+        if (e.getPlugin() == this.owner) {
+            this.close(e);
+            return;
+        }
+        this.broadcast(e);
+        this.endpoints.removeIf(endpoint -> endpoint.plugin == e.getPlugin());
+        this.routes.clear();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onServiceUnregister(ServiceUnregisterEvent e) {
+        if (e.getProvider().getProvider() == this)
+            this.close(e);
+    }
+
+    private Endpoint route(InventoryHolder holder) {
+        if (holder == null)
+            return NO_ROUTE;
+        return this.routes.computeIfAbsent(holder.getClass(), holderClass -> {
+            for (Endpoint endpoint : this.endpoints) {
+                if (endpoint.inventoryClass.isAssignableFrom(holderClass))
+                    return endpoint;
+            }
+            return NO_ROUTE;
+        });
+    }
+
+    private void broadcast(Event event) {
+        broadcast(this.endpoints, event);
+    }
+
+    /**
+     * Hand an event to every endpoint, a failing endpoint does not prevent the others from receiving it
+     *
+     * @param endpoints The endpoints
+     * @param event     The event
+     */
+    private static void broadcast(List<Endpoint> endpoints, Event event) {
+        for (Endpoint endpoint : endpoints) {
+            try {
+                endpoint.handler.accept(event);
+            } catch (RuntimeException e) {
+                QuickInventoryManager.getLogger().log(Level.SEVERE, "The QuickInventory of " + endpoint.plugin.getName() + " failed on " + event.getEventName(), e);
+            }
+        }
+    }
+
+    /**
+     * Stop listening and leave the {@link ServicesManager}, then hand the event over to every attached copy
+     * so the next one registers a new registry and the others attach to it
+     *
+     * @param event The event closing the registry
+     */
+    private void close(Event event) {
+        if (this.closed)
+            return;
+        this.closed = true;
+        HandlerList.unregisterAll(this);
+        this.owner.getServer().getServicesManager().unregister(this);
+        List<Endpoint> attached = new ArrayList<>(this.endpoints);
+        this.endpoints.clear();
+        this.routes.clear();
+        broadcast(attached, event);
+    }
+
+    /**
+     * Find the registry of any copy of QuickInventory, or register a new one owned by a plugin
+     *
+     * @param plugin The plugin owning the new registry if none is registered
+     * @return The registry, a {@link QuickInventoryRegistry} of any copy
+     */
+    static Object findOrCreate(Plugin plugin) {
+        ServicesManager servicesManager = plugin.getServer().getServicesManager();
+        for (Class<?> service : servicesManager.getKnownServices()) {
+            if (!service.getSimpleName().equals(QuickInventoryRegistry.class.getSimpleName()))
+                continue;
+            RegisteredServiceProvider<?> registration = servicesManager.getRegistration(service);
+            if (registration != null && registration.getProvider() != null)
+                return registration.getProvider();
+        }
+
+        QuickInventoryRegistry registry = new QuickInventoryRegistry(plugin);
+        plugin.getServer().getPluginManager().registerEvents(registry, plugin);
+        servicesManager.register(QuickInventoryRegistry.class, registry, plugin, ServicePriority.Normal);
+        return registry;
+    }
+
+    /**
+     * Call a method of a registry of any copy, the registry of another copy is only reachable by reflection
+     *
+     * @param registry   The registry
+     * @param name       The name of the method
+     * @param parameters The parameter types of the method
+     * @param arguments  The arguments
+     * @return The returned value
+     */
+    static Object invoke(Object registry, String name, Class<?>[] parameters, Object... arguments) {
+        try {
+            return registry.getClass().getMethod(name, parameters).invoke(registry, arguments);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("The QuickInventory registry failed on " + name, e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("The QuickInventory registry of " + registry.getClass().getName() + " is not compatible", e);
+        }
+    }
+
+    /**
+     * A copy of QuickInventory attached to the registry
+     */
+    private static final class Endpoint {
+
+        private final Plugin plugin;
+        private final Class<?> inventoryClass;
+        private final Consumer<Event> handler;
+
+        private Endpoint(Plugin plugin, Class<?> inventoryClass, Consumer<Event> handler) {
+            this.plugin = plugin;
+            this.inventoryClass = inventoryClass;
+            this.handler = handler;
+        }
+
+    }
+
+}
@@ -0,0 +1,88 @@
+package fr.zorg.quickinventory;
+
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+
+import java.lang.ref.WeakReference;
+import java.util.UUID;
+
+/**
+ * A {@link QuickInventory} opened to a player with {@link QuickInventory#open(Player)}, tracked by {@link QuickInventoryManager}
+ * until the player closes it, quits, or the inventory is found closed by the periodic sweep.
+ * The inventories are only weakly referenced, so a session missed by every cleanup never keeps them alive
+ *
+ * @author <a href="https://github.com/ZorgBtw">Zorg</a>
+ * @see QuickInventoryManager#getSessions()
+ */
+public final class QuickInventorySession {
+
+    private final UUID playerId;
+    private final String playerName;
+    private final WeakReference<QuickInventory> inventory;
+
+    /**
+     * The {@link Inventory} actually opened, held by another {@link QuickInventory} after {@link QuickInventory#setInventory(QuickInventory)}
+     */
+    private final WeakReference<Inventory> openedInventory;
+    private final Class<? extends QuickInventory> inventoryClass;
+    private final long openedAt;
+
+    QuickInventorySession(Player player, QuickInventory quickInventory) {
+        this.playerId = player.getUniqueId();
+        this.playerName = player.getName();
+        this.inventory = new WeakReference<>(quickInventory);
+        this.openedInventory = new WeakReference<>(quickInventory.getInventory());
+        this.inventoryClass = quickInventory.getClass();
+        this.openedAt = System.currentTimeMillis();
+    }
+
+    public UUID getPlayerId() {
+        return this.playerId;
+    }
+
+    public String getPlayerName() {
+        return this.playerName;
+    }
+
+    /**
+     * Get the opened {@link QuickInventory}
+     *
+     * @return The {@link QuickInventory}, null if it was garbage collected
+     */
+    public QuickInventory getInventory() {
+        return this.inventory.get();
+    }
+
+    /**
+     * Check if an {@link Inventory} is the one opened to the player in this session
+     *
+     * @param inventory The {@link Inventory}, usually the top inventory of an event
+     * @return True if it is the opened {@link Inventory}
+     */
+    boolean isViewing(Inventory inventory) {
+        return inventory != null && this.openedInventory.get() == inventory;
+    }
+
+    public Class<? extends QuickInventory> getInventoryClass() {
+        return this.inventoryClass;
+    }
+
+    /**
+     * Get the time the {@link QuickInventory} was opened
+     *
+     * @return The opening time, in milliseconds since the epoch
+     */
+    public long getOpenedAt() {
+        return this.openedAt;
+    }
+
+    /**
+     * Get the time elapsed since the {@link QuickInventory} was opened
+     *
+     * @return The age of the session, in milliseconds
+     */
+    public long getAge() {
+        return System.currentTimeMillis() - this.openedAt;
+    }
+
+}
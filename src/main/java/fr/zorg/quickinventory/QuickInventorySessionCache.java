@@ -0,0 +1,315 @@
+package fr.zorg.quickinventory;
+
+import org.bukkit.entity.Player;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the {@link QuickInventory} of each player once closed, so reopening a menu does not rebuild it.
+ * Entries are keyed by player and by a menu key, evicted when a player has too many of them, when they are
+ * unused for too long, or when the player leaves. Disabled by default
+ *
+ * @author <a href="https://github.com/ZorgBtw">Zorg</a>
+ * @see QuickInventoryManager#getSessionCache()
+ */
+public final class QuickInventorySessionCache {
+
+    private final Map<UUID, Map<String, Session>> sessions = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private volatile boolean enabled;
+    private volatile int maximumSize = 8;
+    private volatile long expireAfter = TimeUnit.MINUTES.toNanos(10);
+
+    QuickInventorySessionCache() {
+    }
+
+    /**
+     * Enable or disable the cache, disabling it drops every cached {@link QuickInventory}
+     *
+     * @param enabled If closed inventories should be kept
+     * @return The {@link QuickInventorySessionCache}
+     */
+    public QuickInventorySessionCache setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled)
+            this.sessions.clear();
+        return this;
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Set the amount of {@link QuickInventory} kept per player, the least recently opened are evicted first. 8 by default
+     *
+     * @param maximumSize The amount of inventories per player
+     * @return The {@link QuickInventorySessionCache}
+     */
+    public QuickInventorySessionCache setMaximumSize(int maximumSize) {
+        if (maximumSize < 1)
+            throw new IllegalArgumentException("The maximum size must be at least 1");
+        this.maximumSize = maximumSize;
+        return this;
+    }
+
+    /**
+     * Set how long an unopened {@link QuickInventory} is kept. 10 minutes by default
+     *
+     * @param duration The duration since the last opening
+     * @param unit     The unit of the duration
+     * @return The {@link QuickInventorySessionCache}
+     */
+    public QuickInventorySessionCache setExpireAfter(long duration, TimeUnit unit) {
+        this.expireAfter = unit.toNanos(duration);
+        return this;
+    }
+
+    /**
+     * Open the cached {@link QuickInventory} of a player, or build and cache a new one
+     *
+     * @param player  The player to open the inventory
+     * @param key     The key of the menu, such as {@code "profile"}
+     * @param factory Builds the {@link QuickInventory} when none is cached
+     * @param <T>     The type of the {@link QuickInventory}
+     * @return The opened {@link QuickInventory}
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends QuickInventory> T open(Player player, String key, Supplier<T> factory) {
+        if (!this.enabled) {
+            T quickInventory = factory.get();
+            quickInventory.open(player);
+            return quickInventory;
+        }
+
+        final long now = System.nanoTime();
+        final Map<String, Session> playerSessions = this.sessions.computeIfAbsent(player.getUniqueId(), uuid -> new LinkedHashMap<>(16, 0.75F, true));
+        T quickInventory;
+        synchronized (playerSessions) {
+            Session session = playerSessions.get(key);
+            if (session != null && now - session.lastOpened < this.expireAfter) {
+                this.hits.increment();
+                session.lastOpened = now;
+                quickInventory = (T) session.inventory;
+            } else {
+                if (session != null)
+                    this.evictions.increment();
+                this.misses.increment();
+                quickInventory = factory.get();
+                playerSessions.put(key, new Session(quickInventory, now));
+                this.evictOldest(playerSessions);
+            }
+        }
+        quickInventory.open(player);
+        return quickInventory;
+    }
+
+    /**
+     * Change some slots of a cached {@link QuickInventory} instead of dropping it, the changes are sent at once if it is opened
+     *
+     * @param player  The player owning the inventory
+     * @param key     The key of the menu
+     * @param changes The changes to apply
+     * @return True if the inventory was cached
+     */
+    public boolean refresh(UUID player, String key, Consumer<QuickTransaction> changes) {
+        QuickInventory quickInventory = this.getIfPresent(player, key);
+        if (quickInventory == null)
+            return false;
+        quickInventory.edit(changes);
+        return true;
+    }
+
+    /**
+     * Change some slots of the cached {@link QuickInventory} of every player for a menu
+     *
+     * @param key     The key of the menu
+     * @param changes The changes to apply
+     */
+    public void refreshAll(String key, Consumer<QuickTransaction> changes) {
+        for (UUID player : this.sessions.keySet()) {
+            this.refresh(player, key, changes);
+        }
+    }
+
+    /**
+     * Drop a cached {@link QuickInventory}, it is rebuilt on the next opening
+     *
+     * @param player The player owning the inventory
+     * @param key    The key of the menu
+     */
+    public void invalidate(UUID player, String key) {
+        Map<String, Session> playerSessions = this.sessions.get(player);
+        if (playerSessions == null)
+            return;
+        synchronized (playerSessions) {
+            playerSessions.remove(key);
+        }
+    }
+
+    /**
+     * Drop every cached {@link QuickInventory} of a player
+     *
+     * @param player The player owning the inventories
+     */
+    public void invalidate(UUID player) {
+        this.sessions.remove(player);
+    }
+
+    /**
+     * Drop the cached {@link QuickInventory} of every player for a menu
+     *
+     * @param key The key of the menu
+     */
+    public void invalidateAll(String key) {
+        for (UUID player : this.sessions.keySet()) {
+            this.invalidate(player, key);
+        }
+    }
+
+    /**
+     * Drop every cached {@link QuickInventory}
+     */
+    public void invalidateAll() {
+        this.sessions.clear();
+    }
+
+    /**
+     * Drop the cached {@link QuickInventory} matching a filter, such as the ones of a disabled plugin
+     *
+     * @param filter The inventories to drop
+     */
+    void invalidateIf(Predicate<QuickInventory> filter) {
+        for (Map<String, Session> playerSessions : this.sessions.values()) {
+            synchronized (playerSessions) {
+                playerSessions.values().removeIf(session -> filter.test(session.inventory));
+            }
+        }
+    }
+
+    /**
+     * Get a cached {@link QuickInventory} without opening it
+     *
+     * @param player The player owning the inventory
+     * @param key    The key of the menu
+     * @return The cached {@link QuickInventory}, null if there is none
+     */
+    public QuickInventory getIfPresent(UUID player, String key) {
+        Map<String, Session> playerSessions = this.sessions.get(player);
+        if (playerSessions == null)
+            return null;
+        synchronized (playerSessions) {
+            Session session = playerSessions.get(key);
+            return session == null ? null : session.inventory;
+        }
+    }
+
+    /**
+     * Remove the expired {@link QuickInventory}, called periodically by {@link QuickInventoryManager}
+     */
+    void cleanUp() {
+        final long now = System.nanoTime();
+        final long expireAfter = this.expireAfter;
+        for (Iterator<Map<String, Session>> players = this.sessions.values().iterator(); players.hasNext(); ) {
+            Map<String, Session> playerSessions = players.next();
+            synchronized (playerSessions) {
+                for (Iterator<Session> iterator = playerSessions.values().iterator(); iterator.hasNext(); ) {
+                    Session session = iterator.next();
+                    if (now - session.lastOpened >= expireAfter && session.inventory.getViewerCount() == 0) {
+                        iterator.remove();
+                        this.evictions.increment();
+                    }
+                }
+                if (playerSessions.isEmpty())
+                    players.remove();
+            }
+        }
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Return the amount of {@link QuickInventory} removed because of the size or the expiry, not counting invalidations
+     *
+     * @return The evictions
+     */
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * Return the share of openings served from the cache
+     *
+     * @return The hit rate between 0 and 1, 0 if nothing was opened
+     */
+    public double getHitRate() {
+        long hits = this.hits.sum();
+        long total = hits + this.misses.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Return the amount of cached {@link QuickInventory}
+     *
+     * @return The size of the cache
+     */
+    public int getSize() {
+        int size = 0;
+        for (Map<String, Session> playerSessions : this.sessions.values()) {
+            synchronized (playerSessions) {
+                size += playerSessions.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Reset the hits, misses and evictions counters
+     */
+    public void resetCounters() {
+        this.hits.reset();
+        this.misses.reset();
+        this.evictions.reset();
+    }
+
+    private void evictOldest(Map<String, Session> playerSessions) {
+        Iterator<Session> iterator = playerSessions.values().iterator();
+        while (playerSessions.size() > this.maximumSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            this.evictions.increment();
+        }
+    }
+
+    private static final class Session {
+
+        private final QuickInventory inventory;
+        private long lastOpened;
+
+        private Session(QuickInventory inventory, long lastOpened) {
+            this.inventory = inventory;
+            this.lastOpened = lastOpened;
+        }
+
+    }
+
+}
@@ -0,0 +1,100 @@
+package fr.zorg.quickinventory;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.function.Consumer;
+
+/**
+ * A prebuilt layout of a {@link QuickInventory}, built once and copied for every player.
+ * Create it from a {@link QuickInventory} holding the static items and actions,
+ * then pass it to {@link QuickInventory#QuickInventory(QuickInventoryTemplate)}
+ *
+ * @author <a href="https://github.com/ZorgBtw">Zorg</a>
+ */
+public final class QuickInventoryTemplate {
+
+    private final InventoryType inventoryType;
+    private final String title;
+    private final int size;
+    private final ItemStack[] contents;
+    private final Consumer<InventoryClickEvent>[] actions;
+    private final Consumer<InventoryClickEvent>[] clickTypeActions;
+    private final long[] takeable;
+    private final long[] placeable;
+
+    private QuickInventoryTemplate(QuickInventory layout) {
+        Inventory inventory = layout.getInventory();
+        this.inventoryType = inventory.getType();
+        this.title = inventory.getTitle();
+        this.size = inventory.getSize();
+
+        this.contents = inventory.getContents();
+        for (int i = 0; i < this.contents.length; i++) {
+            if (this.contents[i] != null)
+                this.contents[i] = this.contents[i].clone();
+        }
+
+        this.actions = layout.getActionTable().clone();
+        this.clickTypeActions = layout.getClickTypeActions() == null ? null : layout.getClickTypeActions().clone();
+        this.takeable = layout.getTakeable() == null ? null : layout.getTakeable().clone();
+        this.placeable = layout.getPlaceable() == null ? null : layout.getPlaceable().clone();
+    }
+
+    /**
+     * Creates a new {@link QuickInventoryTemplate} from the current items and actions of a {@link QuickInventory}.
+     * Later changes to the layout are not reflected in the template
+     *
+     * @param layout The {@link QuickInventory} holding the static layout
+     * @return A new {@link QuickInventoryTemplate}
+     */
+    public static QuickInventoryTemplate of(QuickInventory layout) {
+        return new QuickInventoryTemplate(layout);
+    }
+
+    /**
+     * Creates a new {@link QuickInventory} from this template and opens it to a {@link Player}
+     *
+     * @param player The player to open the inventory
+     * @return The opened {@link QuickInventory}
+     */
+    public QuickInventory open(Player player) {
+        return new QuickInventory(this).open(player);
+    }
+
+    public InventoryType getInventoryType() {
+        return this.inventoryType;
+    }
+
+    public String getTitle() {
+        return this.title;
+    }
+
+    public int getSize() {
+        return this.size;
+    }
+
+    ItemStack[] getContents() {
+        return this.contents;
+    }
+
+    Consumer<InventoryClickEvent>[] getActions() {
+        return this.actions;
+    }
+
+    Consumer<InventoryClickEvent>[] getClickTypeActions() {
+        return this.clickTypeActions;
+    }
+
+    long[] getTakeable() {
+        return this.takeable;
+    }
+
+    long[] getPlaceable() {
+        return this.placeable;
+    }
+
+}
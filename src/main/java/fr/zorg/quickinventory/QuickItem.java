@@ -7,15 +7,46 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.inventory.meta.SkullMeta;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.ref.WeakReference;
 import java.util.*;
+import java.util.function.Function;
 
 public class QuickItem {
 
+    /**
+     * Frozen {@link QuickItem}, keyed by a private copy of their built {@link ItemStack} so structurally identical items share one instance.
+     * Each pooled {@link QuickItem} holds its key, so an entry is dropped once nothing uses the item anymore
+     */
+    private static final Map<ItemStack, WeakReference<QuickItem>> INTERN_POOL = new WeakHashMap<>();
+
     private ItemStack item;
     private ItemMeta itemMeta;
 
+    /**
+     * The built {@link ItemStack}, only set once the {@link QuickItem} is frozen
+     */
+    private ItemStack frozenItem;
+
+    /**
+     * The key of the {@link QuickItem} in the intern pool, never handed out so it cannot be modified
+     */
+    private ItemStack internKey;
+
+    /**
+     * True when the {@link ItemMeta} changed since it was last applied to the {@link ItemStack}
+     */
+    private boolean metaChanged;
+
+    private TextTemplate nameTemplate;
+    private TextTemplate[] loreTemplates;
+    private String renderedName;
+    private String[] renderedLore;
+
+    /**
+     * The base64 texture set with {@link QuickItem#setBase64SkullValue(String)}, kept to serialize the {@link QuickItem}
+     */
+    private String skullTexture;
+
     /**
      * Creates a new {@link QuickItem}
      *
@@ -53,6 +84,7 @@ public class QuickItem {
      * @return The {@link QuickItem}, useful for chaining
      */
     public QuickItem setSize(int size) {
+        this.modify();
         this.item.setAmount(size);
         return this;
     }
@@ -94,7 +126,9 @@ public class QuickItem {
      * @return The {@link QuickItem}, useful for chaining
      */
     public QuickItem setName(String name) {
+        this.modify();
         this.itemMeta.setDisplayName(name);
+        this.renderedName = null;
         return this;
     }
 
@@ -115,7 +149,9 @@ public class QuickItem {
      * @return The {@link QuickItem}, useful for chaining
      */
     public QuickItem setLore(List<String> lore) {
+        this.modify();
         this.itemMeta.setLore(lore);
+        this.renderedLore = null;
         return this;
     }
 
@@ -156,7 +192,9 @@ public class QuickItem {
      * @return The {@link QuickItem}, useful for chaining
      */
     public QuickItem addLore(String lore) {
+        this.modify();
         this.itemMeta.getLore().add(lore);
+        this.renderedLore = null;
         return this;
     }
 
@@ -167,12 +205,14 @@ public class QuickItem {
      * @return The {@link QuickItem}, useful for chaining
      */
     public QuickItem addLore(List<String> lore) {
+        this.modify();
         List<String> itemLore = this.itemMeta.getLore();
         if (itemLore == null)
             itemLore = lore;
         else
             itemLore.addAll(lore);
         this.itemMeta.setLore(itemLore);
+        this.renderedLore = null;
         return this;
     }
 
@@ -192,7 +232,9 @@ public class QuickItem {
      * @return The {@link QuickItem}, useful for chaining
      */
     public QuickItem resetLore() {
+        this.modify();
         this.itemMeta.setLore(Collections.emptyList());
+        this.renderedLore = null;
         return this;
     }
 
@@ -204,6 +246,7 @@ public class QuickItem {
      * @return The {@link QuickItem}, useful for chaining
      */
     public QuickItem setEnchant(Enchantment enchantment, int level) {
+        this.modify();
         this.itemMeta.addEnchant(enchantment, level, true);
         return this;
     }
@@ -226,6 +269,7 @@ public class QuickItem {
      * @return The {@link QuickItem}, useful for chaining
      */
     public QuickItem removeEnchant(Enchantment enchantment) {
+        this.modify();
         this.itemMeta.removeEnchant(enchantment);
         return this;
     }
@@ -236,6 +280,7 @@ public class QuickItem {
      * @return The {@link QuickItem}, useful for chaining
      */
     public QuickItem resetEnchants() {
+        this.modify();
         this.itemMeta.getEnchants().forEach((enchantment, integer) -> this.itemMeta.removeEnchant(enchantment));
         return this;
     }
@@ -247,6 +292,7 @@ public class QuickItem {
      * @return The {@link QuickItem}, useful for chaining
      */
     public QuickItem setDurability(int durability) {
+        this.modify();
         this.item.setDurability((short) durability);
         return this;
     }
@@ -268,6 +314,7 @@ public class QuickItem {
      * @return The {@link QuickItem}, useful for chaining
      */
     public QuickItem addItemFlag(ItemFlag... itemFlags) {
+        this.modify();
         this.itemMeta.addItemFlags(itemFlags);
         return this;
     }
@@ -279,6 +326,7 @@ public class QuickItem {
      * @return The {@link QuickItem}, useful for chaining
      */
     public QuickItem removeItemFlag(ItemFlag... itemFlags) {
+        this.modify();
         this.itemMeta.removeItemFlags(itemFlags);
         return this;
     }
@@ -290,6 +338,7 @@ public class QuickItem {
      * @return The {@link QuickItem}, useful for chaining
      */
     public QuickItem setUnbreakable(boolean unbreakable) {
+        this.modify();
         this.itemMeta.spigot().setUnbreakable(unbreakable);
         return this;
     }
@@ -311,37 +360,10 @@ public class QuickItem {
      * @return The {@link QuickItem}, useful for chaining
      */
     public QuickItem setBase64SkullValue(String base64) {
-        if (!(this.itemMeta instanceof SkullMeta))
-            return this;
-
-        try {
-            final SkullMeta skullMeta = ((SkullMeta) this.itemMeta);
-
-            final Object gameProfile = Class.forName("com.mojang.authlib.GameProfile")
-                    .getConstructor(UUID.class, String.class)
-                    .newInstance(UUID.randomUUID(), "");
-
-            final Object property = Class.forName("com.mojang.authlib.properties.Property")
-                    .getConstructor(String.class, String.class)
-                    .newInstance("texture", base64);
-
-            final Object propertyMap = gameProfile
-                    .getClass()
-                    .getMethod("getProperties")
-                    .invoke(gameProfile);
-
-            propertyMap
-                    .getClass()
-                    .getMethod("put", Object.class, Object.class)
-                    .invoke(propertyMap, "textures", property);
-
-            Field profileField = skullMeta.getClass().getDeclaredField("profile");
-            profileField.setAccessible(true);
-            profileField.set(skullMeta, gameProfile);
-
-            this.itemMeta = skullMeta;
-        } catch (ClassNotFoundException | NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchFieldException e) {
-            e.printStackTrace();
+        this.modify();
+        if (this.itemMeta instanceof SkullMeta) {
+            SkullTextures.apply((SkullMeta) this.itemMeta, base64);
+            this.skullTexture = base64;
         }
         return this;
     }
@@ -368,15 +390,221 @@ public class QuickItem {
     }
 
     /**
-     * Builds the {@link QuickItem}
+     * Set the name of the {@link QuickItem} to a template with placeholders such as {@code {coins}},
+     * rendered with {@link QuickItem#render(Function)}
+     *
+     * @param name The name template, {@code &} color codes are translated
+     * @return The {@link QuickItem}, useful for chaining
+     * @see TextTemplate
+     */
+    public QuickItem nameTemplate(String name) {
+        this.modify();
+        this.nameTemplate = TextTemplate.compile(name);
+        this.renderedName = null;
+        return this;
+    }
+
+    /**
+     * Set the lore of the {@link QuickItem} to templates with placeholders such as {@code {coins}},
+     * rendered with {@link QuickItem#render(Function)}
+     *
+     * @param lore The lore templates, {@code &} color codes are translated
+     * @return The {@link QuickItem}, useful for chaining
+     * @see TextTemplate
+     */
+    public QuickItem loreTemplate(List<String> lore) {
+        this.modify();
+        this.loreTemplates = new TextTemplate[lore.size()];
+        for (int i = 0; i < this.loreTemplates.length; i++) {
+            this.loreTemplates[i] = TextTemplate.compile(lore.get(i));
+        }
+        this.renderedLore = null;
+        return this;
+    }
+
+    /**
+     * Set the lore of the {@link QuickItem} to templates with placeholders such as {@code {coins}},
+     * rendered with {@link QuickItem#render(Function)}
+     *
+     * @param lore The lore templates, {@code &} color codes are translated
+     * @return The {@link QuickItem}, useful for chaining
+     * @see TextTemplate
+     */
+    public QuickItem loreTemplate(String... lore) {
+        return this.loreTemplate(Arrays.asList(lore));
+    }
+
+    /**
+     * Render the name and lore templates of the {@link QuickItem}. The name and lore are only set
+     * when the rendered text differs from the previous render, or when they were set by hand since
+     *
+     * @param resolver The value of a placeholder, from its name
+     * @return The {@link QuickItem}, useful for chaining
+     */
+    public QuickItem render(Function<String, ?> resolver) {
+        if (this.frozenItem != null)
+            throw new IllegalStateException("This QuickItem is frozen, use copy() to modify it");
+
+        if (this.nameTemplate != null) {
+            String name = this.nameTemplate.render(resolver);
+            if (!name.equals(this.renderedName)) {
+                this.itemMeta.setDisplayName(name);
+                this.renderedName = name;
+                this.metaChanged = true;
+            }
+        }
+
+        if (this.loreTemplates != null) {
+            String[] lore = this.renderedLore;
+            boolean changed = lore == null;
+            if (changed)
+                lore = new String[this.loreTemplates.length];
+            for (int i = 0; i < lore.length; i++) {
+                String line = this.loreTemplates[i].render(resolver);
+                if (!line.equals(lore[i])) {
+                    lore[i] = line;
+                    changed = true;
+                }
+            }
+            if (changed) {
+                this.itemMeta.setLore(Arrays.asList(lore.clone()));
+                this.renderedLore = lore;
+                this.metaChanged = true;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Builds the {@link QuickItem}. A frozen {@link QuickItem} returns the same {@link ItemStack} to every caller,
+     * it must not be modified: clone it first
      *
      * @return The {@link ItemStack} that represents the {@link QuickItem}
      */
     public ItemStack build() {
-        this.item.setItemMeta(this.itemMeta);
+        if (this.frozenItem != null)
+            return this.frozenItem;
+        if (this.metaChanged) {
+            this.item.setItemMeta(this.itemMeta);
+            this.metaChanged = false;
+        }
         return this.item;
     }
 
+    /**
+     * Freezes the {@link QuickItem}: it is built once into a private copy and every later call to {@link QuickItem#build()}
+     * returns that same {@link ItemStack}, which must not be modified. Modifying a frozen {@link QuickItem} throws an
+     * {@link IllegalStateException}, use {@link QuickItem#copy()} to derive a new one
+     *
+     * @return The {@link QuickItem}, useful for chaining
+     */
+    public QuickItem freeze() {
+        if (this.frozenItem == null)
+            this.frozenItem = this.build().clone();
+        return this;
+    }
+
+    /**
+     * Check if the {@link QuickItem} is frozen
+     *
+     * @return The frozen state of the {@link QuickItem}
+     * @see QuickItem#freeze()
+     */
+    public boolean isFrozen() {
+        return this.frozenItem != null;
+    }
+
+    /**
+     * Freezes the {@link QuickItem} and returns the pooled {@link QuickItem} structurally identical to it
+     * (same material, amount, durability, name, lore, enchantments, flags...), so identical items share one {@link ItemStack}.
+     * The pool only keeps the items still in use
+     *
+     * @return The pooled, frozen {@link QuickItem}
+     */
+    public QuickItem intern() {
+        this.freeze();
+        synchronized (INTERN_POOL) {
+            WeakReference<QuickItem> reference = INTERN_POOL.get(this.frozenItem);
+            QuickItem pooled = reference == null ? null : reference.get();
+            if (pooled != null)
+                return pooled;
+            this.internKey = this.frozenItem.clone();
+            INTERN_POOL.put(this.internKey, new WeakReference<>(this));
+            return this;
+        }
+    }
+
+    /**
+     * Creates a mutable copy of the {@link QuickItem}, frozen or not
+     *
+     * @return A new {@link QuickItem}
+     */
+    public QuickItem copy() {
+        QuickItem copy = new QuickItem(this.item.clone());
+        copy.itemMeta = this.itemMeta.clone();
+        copy.metaChanged = true;
+        copy.nameTemplate = this.nameTemplate;
+        copy.loreTemplates = this.loreTemplates;
+        copy.skullTexture = this.skullTexture;
+        return copy;
+    }
+
+    /**
+     * Empties the pool used by {@link QuickItem#intern()}
+     */
+    public static void clearInternPool() {
+        synchronized (INTERN_POOL) {
+            INTERN_POOL.clear();
+        }
+    }
+
+    /**
+     * Return the amount of {@link QuickItem} in the pool used by {@link QuickItem#intern()}
+     *
+     * @return The size of the pool
+     */
+    public static int getInternPoolSize() {
+        synchronized (INTERN_POOL) {
+            return INTERN_POOL.size();
+        }
+    }
+
+    /**
+     * Called before every change of the {@link QuickItem}
+     */
+    private void modify() {
+        if (this.frozenItem != null)
+            throw new IllegalStateException("This QuickItem is frozen, use copy() to modify it");
+        this.metaChanged = true;
+    }
+
+    /**
+     * Return the {@link Material} of the {@link QuickItem}
+     *
+     * @return The {@link Material} of the {@link QuickItem}
+     */
+    public Material getMaterial() {
+        return this.item.getType();
+    }
+
+    /**
+     * Return the durability of the {@link QuickItem}
+     *
+     * @return The durability of the {@link QuickItem}
+     */
+    public int getDurability() {
+        return this.item.getDurability();
+    }
+
+    /**
+     * Return the base64 skull texture of the {@link QuickItem}
+     *
+     * @return The texture set with {@link QuickItem#setBase64SkullValue(String)}, null if there is none
+     */
+    public String getSkullTexture() {
+        return this.skullTexture;
+    }
+
     /**
      * Return the amount of the {@link QuickItem}
      *
@@ -418,9 +646,8 @@ public class QuickItem {
      *
      * @return All ItemFlags applied to the {@link QuickItem}
      */
-    @SuppressWarnings("unchecked")
     public List<ItemFlag> getItemFlags() {
-        return (List<ItemFlag>) this.itemMeta.getItemFlags();
+        return new ArrayList<>(this.itemMeta.getItemFlags());
     }
 
     /**
@@ -0,0 +1,241 @@
+package fr.zorg.quickinventory;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A large collection of {@link QuickItem} (shop entries, cosmetics...) stored in a single binary file.
+ * The file is memory-mapped and only its index is read when opening, each item is decoded on its first access.
+ * Use it as the source of a {@link PaginatedQuickInventory} with {@code catalog::get} and {@code catalog::size}
+ * <p>
+ * File layout: magic, version, item count, then for each item its UTF-8 key and the offset of its data, then the item data
+ *
+ * @author <a href="https://github.com/ZorgBtw">Zorg</a>
+ */
+public final class QuickItemCatalog {
+
+    private static final int MAGIC = 0x51494341;
+    private static final int VERSION = 1;
+
+    private final ByteBuffer buffer;
+    private final String[] keys;
+    private final int[] offsets;
+    private final Map<String, Integer> indexes;
+    private final AtomicReferenceArray<QuickItemSpec> decoded;
+
+    private QuickItemCatalog(ByteBuffer buffer, String[] keys, int[] offsets) {
+        this.buffer = buffer;
+        this.keys = keys;
+        this.offsets = offsets;
+        this.indexes = new HashMap<>(keys.length * 4 / 3 + 1);
+        for (int i = 0; i < keys.length; i++) {
+            this.indexes.put(keys[i], i);
+        }
+        this.decoded = new AtomicReferenceArray<>(keys.length);
+    }
+
+    /**
+     * Write items to a catalog file, replacing it at once if it exists
+     *
+     * @param file  The catalog file
+     * @param items The items by key, written in the iteration order of the map
+     * @throws IOException If the file can't be written
+     */
+    public static void write(Path file, Map<String, QuickItem> items) throws IOException {
+        Map<String, QuickItemSpec> specs = new LinkedHashMap<>(items.size() * 4 / 3 + 1);
+        for (Map.Entry<String, QuickItem> item : items.entrySet()) {
+            specs.put(item.getKey(), QuickItemSpec.of(item.getValue()));
+        }
+        writeSpecs(file, specs);
+    }
+
+    /**
+     * Write item specs to a catalog file, replacing it at once if it exists
+     *
+     * @param file  The catalog file
+     * @param items The item specs by key, written in the iteration order of the map
+     * @throws IOException If the file can't be written, a key is longer than 65535 bytes in UTF-8 or an item does not fit in the format
+     */
+    public static void writeSpecs(Path file, Map<String, QuickItemSpec> items) throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream(items.size() * 64);
+        DataOutputStream dataOutput = new DataOutputStream(data);
+        byte[][] keys = new byte[items.size()][];
+        int[] offsets = new int[items.size()];
+        int index = 0;
+        for (Map.Entry<String, QuickItemSpec> item : items.entrySet()) {
+            keys[index] = item.getKey().getBytes(StandardCharsets.UTF_8);
+            if (keys[index].length > 0xFFFF)
+                throw new IOException("The key " + item.getKey().substring(0, 32) + "... is longer than 65535 bytes in UTF-8");
+            offsets[index++] = dataOutput.size();
+            item.getValue().write(dataOutput);
+        }
+
+        if (file.getParent() != null)
+            Files.createDirectories(file.getParent());
+        Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(items.size());
+            for (int i = 0; i < keys.length; i++) {
+                output.writeShort(keys[i].length);
+                output.write(keys[i]);
+                output.writeInt(offsets[i]);
+            }
+            data.writeTo(output);
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Open a catalog file written by {@link QuickItemCatalog#write(Path, Map)}, only its index is read
+     *
+     * @param file The catalog file
+     * @return The opened {@link QuickItemCatalog}
+     * @throws IOException If the file can't be read or is not a catalog of this version
+     */
+    public static QuickItemCatalog open(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.remaining() < 12 || buffer.getInt() != MAGIC)
+            throw new IOException(file + " is not a QuickItem catalog");
+        int version = buffer.getInt();
+        if (version != VERSION)
+            throw new IOException("Unsupported QuickItem catalog version " + version + " in " + file);
+
+        int count = buffer.getInt();
+        String[] keys = new String[count];
+        int[] offsets = new int[count];
+        byte[] keyBytes = new byte[256];
+        for (int i = 0; i < count; i++) {
+            int length = buffer.getShort() & 0xFFFF;
+            if (keyBytes.length < length)
+                keyBytes = new byte[length];
+            buffer.get(keyBytes, 0, length);
+            keys[i] = new String(keyBytes, 0, length, StandardCharsets.UTF_8);
+            offsets[i] = buffer.getInt();
+        }
+
+        int dataStart = buffer.position();
+        for (int i = 0; i < count; i++) {
+            offsets[i] += dataStart;
+        }
+        return new QuickItemCatalog(buffer, keys, offsets);
+    }
+
+    /**
+     * Get a new {@link QuickItem} from the catalog, decoding it on the first access
+     *
+     * @param index The position of the item in the catalog
+     * @return A new {@link QuickItem}
+     * @throws IndexOutOfBoundsException If the index is outside of the catalog
+     */
+    public QuickItem get(int index) {
+        return this.getSpec(index).toQuickItem();
+    }
+
+    /**
+     * Get the {@link QuickItemSpec} of an item, decoding it on the first access
+     *
+     * @param index The position of the item in the catalog
+     * @return The {@link QuickItemSpec} of the item
+     * @throws IndexOutOfBoundsException If the index is outside of the catalog
+     */
+    public QuickItemSpec getSpec(int index) {
+        QuickItemSpec spec = this.decoded.get(index);
+        if (spec == null) {
+            spec = this.decode(index);
+            this.decoded.lazySet(index, spec);
+        }
+        return spec;
+    }
+
+    /**
+     * Get the {@link QuickItemSpec} of an item, decoding it on the first access
+     *
+     * @param key The key of the item
+     * @return The {@link QuickItemSpec} of the item, null if there is no item with this key
+     */
+    public QuickItemSpec getSpec(String key) {
+        Integer index = this.indexes.get(key);
+        return index == null ? null : this.getSpec(index);
+    }
+
+    /**
+     * Get a new {@link QuickItem} from the catalog, decoding it on the first access
+     *
+     * @param key The key of the item
+     * @return A new {@link QuickItem}, null if there is no item with this key
+     */
+    public QuickItem get(String key) {
+        Integer index = this.indexes.get(key);
+        return index == null ? null : this.get(index);
+    }
+
+    /**
+     * Get the position of an item in the catalog
+     *
+     * @param key The key of the item
+     * @return The position of the item, -1 if there is no item with this key
+     */
+    public int indexOf(String key) {
+        Integer index = this.indexes.get(key);
+        return index == null ? -1 : index;
+    }
+
+    public String getKey(int index) {
+        return this.keys[index];
+    }
+
+    public int size() {
+        return this.keys.length;
+    }
+
+    /**
+     * Return the amount of items decoded so far
+     *
+     * @return The decoded items
+     */
+    public int getDecodedCount() {
+        int count = 0;
+        for (int i = 0; i < this.decoded.length(); i++) {
+            if (this.decoded.get(i) != null)
+                count++;
+        }
+        return count;
+    }
+
+    private QuickItemSpec decode(int index) {
+        int start = this.offsets[index];
+        int end = index + 1 < this.offsets.length ? this.offsets[index + 1] : this.buffer.limit();
+        byte[] bytes = new byte[end - start];
+        ByteBuffer view = this.buffer.duplicate();
+        view.position(start);
+        view.get(bytes);
+        try {
+            return QuickItemSpec.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not decode the item " + this.keys[index] + " of the catalog", e);
+        }
+    }
+
+}
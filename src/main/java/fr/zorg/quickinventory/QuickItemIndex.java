@@ -0,0 +1,266 @@
+package fr.zorg.quickinventory;
+
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * A search index over the names and lores of the items of a large source, such as a {@link QuickItemCatalog}.
+ * Texts are indexed without color codes and case, by their 3-grams for substring search and by the first one and two
+ * letters of their words for short queries. Entries can be added and removed at any time, and a search only
+ * looks at the entries sharing the grams of the query
+ *
+ * @author <a href="https://github.com/ZorgBtw">Zorg</a>
+ */
+public final class QuickItemIndex {
+
+    /**
+     * Marks the keys of the word prefixes, so they never collide with a 3-gram
+     */
+    private static final char PREFIX_MARK = '\0';
+
+    private final Map<String, IntList> postings = new HashMap<>();
+    private final Map<Integer, String> texts = new HashMap<>();
+
+    /**
+     * Index an item, replacing its previous entry
+     *
+     * @param id   The identifier of the item, usually its position in the source
+     * @param name The name of the item, may be null
+     * @param lore The lore of the item, may be null
+     * @return The {@link QuickItemIndex}
+     */
+    public synchronized QuickItemIndex add(int id, String name, List<String> lore) {
+        this.remove(id);
+
+        StringBuilder builder = new StringBuilder();
+        if (name != null)
+            builder.append(name);
+        if (lore != null) {
+            for (String line : lore) {
+                builder.append('\n').append(line);
+            }
+        }
+        String text = normalize(builder.toString());
+        this.texts.put(id, text);
+        for (String gram : grams(text)) {
+            this.postings.computeIfAbsent(gram, key -> new IntList()).add(id);
+        }
+        return this;
+    }
+
+    /**
+     * Index a {@link QuickItem}, replacing its previous entry
+     *
+     * @param id        The identifier of the item, usually its position in the source
+     * @param quickItem The item to index
+     * @return The {@link QuickItemIndex}
+     */
+    public QuickItemIndex add(int id, QuickItem quickItem) {
+        return this.add(id, quickItem.getName(), quickItem.getLore());
+    }
+
+    /**
+     * Index a {@link QuickItemSpec}, replacing its previous entry
+     *
+     * @param id   The identifier of the item, usually its position in the source
+     * @param spec The item to index
+     * @return The {@link QuickItemIndex}
+     */
+    public QuickItemIndex add(int id, QuickItemSpec spec) {
+        return this.add(id, spec.getName(), spec.getLore());
+    }
+
+    /**
+     * Remove an item from the index
+     *
+     * @param id The identifier of the item
+     * @return True if the item was indexed
+     */
+    public synchronized boolean remove(int id) {
+        String text = this.texts.remove(id);
+        if (text == null)
+            return false;
+        for (String gram : grams(text)) {
+            IntList posting = this.postings.get(gram);
+            if (posting != null && posting.remove(id) && posting.size == 0)
+                this.postings.remove(gram);
+        }
+        return true;
+    }
+
+    /**
+     * Find the items matching every word of a query, a word of one or two letters matches the start of a word
+     * and a longer one matches anywhere
+     *
+     * @param query The query, color codes and case are ignored
+     * @return The matching items, ordered by identifier. Every item if the query is blank
+     */
+    public synchronized Result search(String query) {
+        String[] terms = Arrays.stream(normalize(query).split("\\s+")).filter(term -> !term.isEmpty()).toArray(String[]::new);
+        if (terms.length == 0) {
+            int[] ids = this.texts.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            return new Result(ids);
+        }
+
+        List<IntList> lists = new ArrayList<>();
+        for (String term : terms) {
+            for (String gram : queryGrams(term)) {
+                IntList posting = this.postings.get(gram);
+                if (posting == null)
+                    return new Result(new int[0]);
+                lists.add(posting);
+            }
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+        IntList smallest = lists.get(0);
+        int[] matches = new int[smallest.size];
+        int count = 0;
+        candidates:
+        for (int i = 0; i < smallest.size; i++) {
+            int id = smallest.values[i];
+            for (int j = 1; j < lists.size(); j++) {
+                if (!lists.get(j).contains(id))
+                    continue candidates;
+            }
+            String text = this.texts.get(id);
+            for (String term : terms) {
+                if (term.length() < 3 ? !startsWord(text, term) : !text.contains(term))
+                    continue candidates;
+            }
+            matches[count++] = id;
+        }
+        return new Result(Arrays.copyOf(matches, count));
+    }
+
+    /**
+     * Return the amount of indexed items
+     *
+     * @return The size of the index
+     */
+    public synchronized int size() {
+        return this.texts.size();
+    }
+
+    private static String normalize(String text) {
+        return ChatColor.stripColor(text).toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            grams.add(text.substring(i, i + 3));
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isLetterOrDigit(text.charAt(i)) && (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)))) {
+                grams.add(PREFIX_MARK + text.substring(i, i + 1));
+                if (i + 1 < text.length() && Character.isLetterOrDigit(text.charAt(i + 1)))
+                    grams.add(PREFIX_MARK + text.substring(i, i + 2));
+            }
+        }
+        return grams;
+    }
+
+    private static List<String> queryGrams(String term) {
+        List<String> grams = new ArrayList<>();
+        if (term.length() < 3) {
+            grams.add(PREFIX_MARK + term);
+            return grams;
+        }
+        for (int i = 0; i + 3 <= term.length(); i++) {
+            grams.add(term.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static boolean startsWord(String text, String term) {
+        for (int i = text.indexOf(term); i >= 0; i = text.indexOf(term, i + 1)) {
+            if (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * The items matching a query, as a source for a {@link PaginatedQuickInventory}:
+     * {@code setSource(result.map(catalog::get), result::size)}. Only the displayed page is built
+     */
+    public static final class Result {
+
+        private final int[] ids;
+
+        private Result(int[] ids) {
+            this.ids = ids;
+        }
+
+        public int size() {
+            return this.ids.length;
+        }
+
+        /**
+         * Return the identifier of a matching item
+         *
+         * @param position The position in the result
+         * @return The identifier of the item
+         */
+        public int get(int position) {
+            return this.ids[position];
+        }
+
+        /**
+         * Map the positions in the result to the items of the source
+         *
+         * @param source The items of the source by identifier
+         * @return The items of the result by position
+         */
+        public IntFunction<QuickItem> map(IntFunction<QuickItem> source) {
+            return position -> source.apply(this.ids[position]);
+        }
+
+    }
+
+    /**
+     * A sorted list of identifiers
+     */
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            int index = this.size == 0 || this.values[this.size - 1] < value ? -this.size - 1 : Arrays.binarySearch(this.values, 0, this.size, value);
+            if (index >= 0)
+                return;
+            index = -index - 1;
+            if (this.size == this.values.length)
+                this.values = Arrays.copyOf(this.values, this.size * 2);
+            System.arraycopy(this.values, index, this.values, index + 1, this.size - index);
+            this.values[index] = value;
+            this.size++;
+        }
+
+        private boolean remove(int value) {
+            int index = Arrays.binarySearch(this.values, 0, this.size, value);
+            if (index < 0)
+                return false;
+            System.arraycopy(this.values, index + 1, this.values, index, this.size - index - 1);
+            this.size--;
+            return true;
+        }
+
+        private boolean contains(int value) {
+            return Arrays.binarySearch(this.values, 0, this.size, value) >= 0;
+        }
+
+    }
+
+}
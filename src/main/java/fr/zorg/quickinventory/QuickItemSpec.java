@@ -0,0 +1,463 @@
+package fr.zorg.quickinventory;
+
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.inventory.meta.SkullMeta;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An immutable description of an item, much lighter than a {@link QuickItem} which holds a live {@link ItemStack} and {@link ItemMeta}.
+ * Equal lores and enchantments are shared between every spec using them, and the {@code with} methods return a new spec sharing
+ * everything that did not change. The {@link ItemStack} is only built by {@link QuickItemSpec#toItemStack()},
+ * when the item goes into an inventory
+ *
+ * @author <a href="https://github.com/ZorgBtw">Zorg</a>
+ */
+public final class QuickItemSpec {
+
+    private static final ItemFlag[] ITEM_FLAGS = ItemFlag.values();
+
+    /**
+     * Lores and enchantments in use, so equal ones are stored once. Weak, so a lore leaves the pool with the last spec using it
+     */
+    private static final WeakInterner<List<String>> LORE_POOL = new WeakInterner<>();
+    private static final WeakInterner<Map<String, Integer>> ENCHANTS_POOL = new WeakInterner<>();
+
+    private final Material material;
+    private final int amount;
+    private final short durability;
+    private final String name;
+    private final List<String> lore;
+    private final Map<String, Integer> enchants;
+    private final int itemFlags;
+    private final boolean unbreakable;
+    private final boolean glowing;
+    private final String skull;
+    private int hash;
+
+    /**
+     * The lore and enchantments must already be shared, so deriving a spec that keeps them costs no pool lookup
+     */
+    private QuickItemSpec(Material material, int amount, short durability, String name, List<String> lore,
+                          Map<String, Integer> enchants, int itemFlags, boolean unbreakable, boolean glowing, String skull) {
+        this.material = material;
+        this.amount = amount;
+        this.durability = durability;
+        this.name = name;
+        this.lore = lore;
+        this.enchants = enchants;
+        this.itemFlags = itemFlags;
+        this.unbreakable = unbreakable;
+        this.glowing = glowing;
+        this.skull = skull;
+    }
+
+    /**
+     * Creates a new {@link QuickItemSpec}
+     *
+     * @param material The {@link Material} of the item
+     * @return A new {@link QuickItemSpec} of one item without meta
+     */
+    public static QuickItemSpec of(Material material) {
+        return new QuickItemSpec(material, 1, (short) 0, null, Collections.emptyList(), Collections.emptyMap(), 0, false, false, null);
+    }
+
+    /**
+     * Read the properties of a {@link QuickItem}
+     *
+     * @param quickItem The {@link QuickItem} to read
+     * @return A new {@link QuickItemSpec}
+     */
+    public static QuickItemSpec of(QuickItem quickItem) {
+        Map<String, Integer> enchants = new LinkedHashMap<>();
+        for (Map.Entry<Enchantment, Integer> enchant : quickItem.getEnchants().entrySet()) {
+            enchants.put(enchant.getKey().getName(), enchant.getValue());
+        }
+
+        int itemFlags = 0;
+        for (ItemFlag itemFlag : quickItem.getItemFlags()) {
+            itemFlags |= 1 << itemFlag.ordinal();
+        }
+
+        return new QuickItemSpec(quickItem.getMaterial(), quickItem.getAmount(), (short) quickItem.getDurability(),
+                quickItem.getName(), quickItem.getLore() == null ? Collections.emptyList() : shareLore(quickItem.getLore()),
+                shareEnchants(enchants), itemFlags, quickItem.isUnbreakable(), false, quickItem.getSkullTexture());
+    }
+
+    /**
+     * Read an item from a configuration section, {@code &} color codes are translated
+     *
+     * @param section The section holding the item
+     * @return The read {@link QuickItemSpec}
+     * @throws IllegalArgumentException If the material, an enchantment or an item flag is unknown
+     */
+    static QuickItemSpec fromConfig(ConfigurationSection section) {
+        String materialName = section.getString("material");
+        Material material = materialName == null ? null : Material.matchMaterial(materialName);
+        if (material == null)
+            throw new IllegalArgumentException("Unknown material '" + materialName + "' in " + section.getName());
+
+        String name = section.getString("name");
+        if (name != null)
+            name = ChatColor.translateAlternateColorCodes('&', name);
+
+        List<String> lore = new ArrayList<>();
+        for (String line : section.getStringList("lore")) {
+            lore.add(ChatColor.translateAlternateColorCodes('&', line));
+        }
+
+        Map<String, Integer> enchants = new LinkedHashMap<>();
+        ConfigurationSection enchantsSection = section.getConfigurationSection("enchants");
+        if (enchantsSection != null) {
+            for (String enchant : enchantsSection.getKeys(false)) {
+                if (Enchantment.getByName(enchant.toUpperCase()) == null)
+                    throw new IllegalArgumentException("Unknown enchantment '" + enchant + "' in " + section.getName());
+                enchants.put(enchant.toUpperCase(), enchantsSection.getInt(enchant, 1));
+            }
+        }
+
+        int itemFlags = 0;
+        for (String flag : section.getStringList("flags")) {
+            try {
+                itemFlags |= 1 << ItemFlag.valueOf(flag.toUpperCase()).ordinal();
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown item flag '" + flag + "' in " + section.getName());
+            }
+        }
+
+        return new QuickItemSpec(material, section.getInt("amount", 1), (short) section.getInt("durability", 0),
+                name, shareLore(lore), shareEnchants(enchants), itemFlags, section.getBoolean("unbreakable", false),
+                section.getBoolean("glowing", false), section.getString("skull"));
+    }
+
+    /**
+     * Read an item written by {@link QuickItemSpec#write(DataOutput)}
+     *
+     * @param input The input to read from
+     * @return The read {@link QuickItemSpec}
+     * @throws IOException If the input can't be read, the material or an enchantment is unknown
+     */
+    static QuickItemSpec read(DataInput input) throws IOException {
+        String materialName = input.readUTF();
+        Material material = Material.getMaterial(materialName);
+        if (material == null)
+            throw new IOException("Unknown material " + materialName);
+        int amount = input.readUnsignedByte();
+        short durability = input.readShort();
+        String name = input.readBoolean() ? input.readUTF() : null;
+
+        int loreSize = input.readUnsignedShort();
+        String[] lore = new String[loreSize];
+        for (int i = 0; i < loreSize; i++) {
+            lore[i] = input.readUTF();
+        }
+
+        int enchantsSize = input.readUnsignedByte();
+        Map<String, Integer> enchants = new LinkedHashMap<>();
+        for (int i = 0; i < enchantsSize; i++) {
+            String enchant = input.readUTF();
+            if (Enchantment.getByName(enchant) == null)
+                throw new IOException("Unknown enchantment " + enchant);
+            enchants.put(enchant, (int) input.readShort());
+        }
+
+        int itemFlags = input.readUnsignedByte();
+        int booleans = input.readUnsignedByte();
+        String skull = input.readBoolean() ? input.readUTF() : null;
+        return new QuickItemSpec(material, amount, durability, name, shareLore(Arrays.asList(lore)), shareEnchants(enchants), itemFlags,
+                (booleans & 1) != 0, (booleans & 2) != 0, skull);
+    }
+
+    /**
+     * Write the item in a compact binary form
+     *
+     * @param output The output to write to
+     * @throws IOException If the output can't be written or a value does not fit in its field
+     */
+    void write(DataOutput output) throws IOException {
+        checkRange(this.amount, 0, 0xFF, "amount");
+        checkRange(this.lore.size(), 0, 0xFFFF, "amount of lore lines");
+        checkRange(this.enchants.size(), 0, 0xFF, "amount of enchantments");
+        checkRange(this.itemFlags, 0, 0xFF, "item flags");
+        for (int level : this.enchants.values()) {
+            checkRange(level, Short.MIN_VALUE, Short.MAX_VALUE, "enchantment level");
+        }
+
+        output.writeUTF(this.material.name());
+        output.writeByte(this.amount);
+        output.writeShort(this.durability);
+        output.writeBoolean(this.name != null);
+        if (this.name != null)
+            output.writeUTF(this.name);
+
+        output.writeShort(this.lore.size());
+        for (String line : this.lore) {
+            output.writeUTF(line);
+        }
+
+        output.writeByte(this.enchants.size());
+        for (Map.Entry<String, Integer> enchant : this.enchants.entrySet()) {
+            output.writeUTF(enchant.getKey());
+            output.writeShort(enchant.getValue());
+        }
+
+        output.writeByte(this.itemFlags);
+        output.writeByte((this.unbreakable ? 1 : 0) | (this.glowing ? 2 : 0));
+        output.writeBoolean(this.skull != null);
+        if (this.skull != null)
+            output.writeUTF(this.skull);
+    }
+
+    public QuickItemSpec withMaterial(Material material) {
+        return new QuickItemSpec(material, this.amount, this.durability, this.name, this.lore, this.enchants, this.itemFlags, this.unbreakable, this.glowing, this.skull);
+    }
+
+    public QuickItemSpec withAmount(int amount) {
+        return new QuickItemSpec(this.material, amount, this.durability, this.name, this.lore, this.enchants, this.itemFlags, this.unbreakable, this.glowing, this.skull);
+    }
+
+    public QuickItemSpec withDurability(int durability) {
+        return new QuickItemSpec(this.material, this.amount, (short) durability, this.name, this.lore, this.enchants, this.itemFlags, this.unbreakable, this.glowing, this.skull);
+    }
+
+    public QuickItemSpec withName(String name) {
+        return new QuickItemSpec(this.material, this.amount, this.durability, name, this.lore, this.enchants, this.itemFlags, this.unbreakable, this.glowing, this.skull);
+    }
+
+    public QuickItemSpec withLore(List<String> lore) {
+        return new QuickItemSpec(this.material, this.amount, this.durability, this.name, shareLore(lore), this.enchants, this.itemFlags, this.unbreakable, this.glowing, this.skull);
+    }
+
+    public QuickItemSpec withLore(String... lore) {
+        return this.withLore(Arrays.asList(lore));
+    }
+
+    public QuickItemSpec withEnchant(Enchantment enchantment, int level) {
+        Map<String, Integer> enchants = new LinkedHashMap<>(this.enchants);
+        enchants.put(enchantment.getName(), level);
+        return new QuickItemSpec(this.material, this.amount, this.durability, this.name, this.lore, shareEnchants(enchants), this.itemFlags, this.unbreakable, this.glowing, this.skull);
+    }
+
+    public QuickItemSpec withoutEnchant(Enchantment enchantment) {
+        Map<String, Integer> enchants = new LinkedHashMap<>(this.enchants);
+        enchants.remove(enchantment.getName());
+        return new QuickItemSpec(this.material, this.amount, this.durability, this.name, this.lore, shareEnchants(enchants), this.itemFlags, this.unbreakable, this.glowing, this.skull);
+    }
+
+    public QuickItemSpec withItemFlags(ItemFlag... itemFlags) {
+        int flags = this.itemFlags;
+        for (ItemFlag itemFlag : itemFlags) {
+            flags |= 1 << itemFlag.ordinal();
+        }
+        return new QuickItemSpec(this.material, this.amount, this.durability, this.name, this.lore, this.enchants, flags, this.unbreakable, this.glowing, this.skull);
+    }
+
+    public QuickItemSpec withoutItemFlags(ItemFlag... itemFlags) {
+        int flags = this.itemFlags;
+        for (ItemFlag itemFlag : itemFlags) {
+            flags &= ~(1 << itemFlag.ordinal());
+        }
+        return new QuickItemSpec(this.material, this.amount, this.durability, this.name, this.lore, this.enchants, flags, this.unbreakable, this.glowing, this.skull);
+    }
+
+    public QuickItemSpec withUnbreakable(boolean unbreakable) {
+        return new QuickItemSpec(this.material, this.amount, this.durability, this.name, this.lore, this.enchants, this.itemFlags, unbreakable, this.glowing, this.skull);
+    }
+
+    /**
+     * Make the item glow without its enchantments written in its lore
+     *
+     * @param glowing If the item should glow
+     * @return A new {@link QuickItemSpec}
+     */
+    public QuickItemSpec withGlowing(boolean glowing) {
+        return new QuickItemSpec(this.material, this.amount, this.durability, this.name, this.lore, this.enchants, this.itemFlags, this.unbreakable, glowing, this.skull);
+    }
+
+    /**
+     * Set the base64 texture of a skull item
+     *
+     * @param skull The base64 texture, null to remove it
+     * @return A new {@link QuickItemSpec}
+     */
+    public QuickItemSpec withSkullTexture(String skull) {
+        return new QuickItemSpec(this.material, this.amount, this.durability, this.name, this.lore, this.enchants, this.itemFlags, this.unbreakable, this.glowing, skull);
+    }
+
+    /**
+     * Build a new {@link ItemStack} from this spec
+     *
+     * @return A new {@link ItemStack}
+     */
+    public ItemStack toItemStack() {
+        ItemStack item = new ItemStack(this.material, this.amount, this.durability);
+        if (this.name == null && this.lore.isEmpty() && this.enchants.isEmpty() && this.itemFlags == 0
+                && !this.unbreakable && !this.glowing && this.skull == null)
+            return item;
+
+        ItemMeta itemMeta = item.getItemMeta();
+        if (this.name != null)
+            itemMeta.setDisplayName(this.name);
+        if (!this.lore.isEmpty())
+            itemMeta.setLore(this.lore);
+        for (Map.Entry<String, Integer> enchant : this.enchants.entrySet()) {
+            itemMeta.addEnchant(Enchantment.getByName(enchant.getKey()), enchant.getValue(), true);
+        }
+        for (ItemFlag itemFlag : ITEM_FLAGS) {
+            if ((this.itemFlags & 1 << itemFlag.ordinal()) != 0)
+                itemMeta.addItemFlags(itemFlag);
+        }
+        if (this.unbreakable)
+            itemMeta.spigot().setUnbreakable(true);
+        if (this.glowing) {
+            itemMeta.addEnchant(Enchantment.LURE, 1, true);
+            itemMeta.addItemFlags(ItemFlag.HIDE_ENCHANTS);
+        }
+        if (this.skull != null && itemMeta instanceof SkullMeta)
+            SkullTextures.apply((SkullMeta) itemMeta, this.skull);
+        item.setItemMeta(itemMeta);
+        return item;
+    }
+
+    /**
+     * Build a new {@link QuickItem} from this spec, to modify it further
+     *
+     * @return A new {@link QuickItem}
+     */
+    public QuickItem toQuickItem() {
+        QuickItem quickItem = QuickItem.of(new ItemStack(this.material, this.amount, this.durability));
+        if (this.name != null)
+            quickItem.setName(this.name);
+        if (!this.lore.isEmpty())
+            quickItem.setLore(new ArrayList<>(this.lore));
+        for (Map.Entry<String, Integer> enchant : this.enchants.entrySet()) {
+            quickItem.setEnchant(Enchantment.getByName(enchant.getKey()), enchant.getValue());
+        }
+        for (ItemFlag itemFlag : ITEM_FLAGS) {
+            if ((this.itemFlags & 1 << itemFlag.ordinal()) != 0)
+                quickItem.addItemFlag(itemFlag);
+        }
+        if (this.unbreakable)
+            quickItem.setUnbreakable(true);
+        if (this.glowing)
+            quickItem.setEnchant(Enchantment.LURE, 1).addItemFlag(ItemFlag.HIDE_ENCHANTS);
+        if (this.skull != null)
+            quickItem.setBase64SkullValue(this.skull);
+        return quickItem;
+    }
+
+    public Material getMaterial() {
+        return this.material;
+    }
+
+    public int getAmount() {
+        return this.amount;
+    }
+
+    public int getDurability() {
+        return this.durability;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Return the lore of the item, shared with every spec having the same lore
+     *
+     * @return An unmodifiable list of the lore
+     */
+    public List<String> getLore() {
+        return this.lore;
+    }
+
+    /**
+     * Return the enchantments of the item by name, shared with every spec having the same enchantments
+     *
+     * @return An unmodifiable map of the enchantment names to their level
+     */
+    public Map<String, Integer> getEnchants() {
+        return this.enchants;
+    }
+
+    public boolean hasItemFlag(ItemFlag itemFlag) {
+        return (this.itemFlags & 1 << itemFlag.ordinal()) != 0;
+    }
+
+    public boolean isUnbreakable() {
+        return this.unbreakable;
+    }
+
+    public boolean isGlowing() {
+        return this.glowing;
+    }
+
+    public String getSkullTexture() {
+        return this.skull;
+    }
+
+    /**
+     * Clear the shared lores and enchantments, existing specs keep theirs. Unused ones already leave the pools on their own
+     */
+    public static void clearSharedPools() {
+        LORE_POOL.clear();
+        ENCHANTS_POOL.clear();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof QuickItemSpec))
+            return false;
+        QuickItemSpec that = (QuickItemSpec) o;
+        return this.material == that.material && this.amount == that.amount && this.durability == that.durability
+                && this.itemFlags == that.itemFlags && this.unbreakable == that.unbreakable && this.glowing == that.glowing
+                && Objects.equals(this.name, that.name) && this.lore.equals(that.lore)
+                && this.enchants.equals(that.enchants) && Objects.equals(this.skull, that.skull);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = this.hash;
+        if (hash == 0) {
+            hash = Objects.hash(this.material, this.amount, this.durability, this.name, this.lore, this.enchants,
+                    this.itemFlags, this.unbreakable, this.glowing, this.skull);
+            this.hash = hash;
+        }
+        return hash;
+    }
+
+    private static void checkRange(int value, int min, int max, String what) throws IOException {
+        if (value < min || value > max)
+            throw new IOException("The " + what + " " + value + " does not fit in the binary item format");
+    }
+
+    private static List<String> shareLore(List<String> lore) {
+        if (lore.isEmpty())
+            return Collections.emptyList();
+        return LORE_POOL.intern(lore, value -> Collections.unmodifiableList(new ArrayList<>(value)));
+    }
+
+    private static Map<String, Integer> shareEnchants(Map<String, Integer> enchants) {
+        if (enchants.isEmpty())
+            return Collections.emptyMap();
+        return ENCHANTS_POOL.intern(enchants, value -> Collections.unmodifiableMap(new LinkedHashMap<>(value)));
+    }
+
+}
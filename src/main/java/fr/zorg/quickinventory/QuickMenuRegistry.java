@@ -0,0 +1,528 @@
+package fr.zorg.quickinventory;
+
+import org.bukkit.ChatColor;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Menus defined in YAML or JSON files, compiled once into {@link QuickInventoryTemplate}.
+ * Every {@code .yml}, {@code .yaml} or {@code .json} file of the folder is a menu named after the file:
+ * <pre>
+ * title: "&amp;8Server selector"
+ * rows: 3
+ * slots:
+ *   borders:
+ *     material: STAINED_GLASS_PANE
+ *     durability: 15
+ *     name: " "
+ *   13:
+ *     material: COMPASS
+ *     name: "&amp;aLobby"
+ *     lore: ["&amp;7Click to join"]
+ *     glowing: true
+ *     action: join-lobby
+ * </pre>
+ * Slots are a number, a list such as {@code "0,8"}, a range such as {@code "0-8"}, {@code borders} or {@code corners}.
+ * Actions are named and bound with {@link QuickMenuRegistry#registerAction(String, Consumer)}.
+ * The compiled menus are cached in a binary file so unchanged files are not parsed again on the next start
+ *
+ * @author <a href="https://github.com/ZorgBtw">Zorg</a>
+ */
+public final class QuickMenuRegistry {
+
+    private static final int CACHE_MAGIC = 0x51494D43;
+    private static final int CACHE_VERSION = 2;
+    private static final String CACHE_FILE = ".menus.bin";
+
+    private final JavaPlugin plugin;
+    private final Path directory;
+    private final Map<String, Consumer<InventoryClickEvent>> actions = new ConcurrentHashMap<>();
+    private final Map<String, QuickInventoryTemplate> menus = new ConcurrentHashMap<>();
+
+    /**
+     * Compiled menus with the size and modification time of their file, written to the cache file
+     */
+    private final Map<String, CachedMenu> compiled = new ConcurrentHashMap<>();
+
+    private WatchService watchService;
+
+    /**
+     * Creates a new {@link QuickMenuRegistry}
+     *
+     * @param plugin    The {@link JavaPlugin} owning the menus, used for logging and hot reload
+     * @param directory The folder holding the menu files, created if missing
+     */
+    public QuickMenuRegistry(JavaPlugin plugin, Path directory) {
+        this.plugin = plugin;
+        this.directory = directory;
+    }
+
+    /**
+     * Bind an action id to an action, the menus look it up on every click so actions may be registered after loading
+     *
+     * @param id     The action id used in the menu files
+     * @param action The action to perform
+     * @return The {@link QuickMenuRegistry}
+     */
+    public QuickMenuRegistry registerAction(String id, Consumer<InventoryClickEvent> action) {
+        this.actions.put(id, action);
+        return this;
+    }
+
+    /**
+     * Compile every menu of the folder, reusing the cached form of the unchanged files. Must be called from the server thread
+     *
+     * @return The {@link QuickMenuRegistry}
+     */
+    public QuickMenuRegistry load() {
+        try {
+            Files.createDirectories(this.directory);
+        } catch (IOException e) {
+            this.plugin.getLogger().log(Level.WARNING, "Could not create the menu folder " + this.directory, e);
+            return this;
+        }
+
+        Map<String, CachedMenu> cache = this.readCache();
+        boolean cacheChanged = false;
+        Map<String, QuickInventoryTemplate> loaded = new HashMap<>();
+        this.compiled.clear();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, "*.{yml,yaml,json}")) {
+            for (Path file : files) {
+                String name = menuName(file);
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    CachedMenu menu = cache.get(name);
+                    if (menu == null || !menu.matches(attributes)) {
+                        menu = new CachedMenu(attributes.size(), attributes.lastModifiedTime().toMillis(), MenuDefinition.parse(file));
+                        cacheChanged = true;
+                    }
+                    this.compiled.put(name, menu);
+                    loaded.put(name, menu.definition.toTemplate(this));
+                } catch (IOException | InvalidConfigurationException | IllegalArgumentException e) {
+                    this.plugin.getLogger().log(Level.WARNING, "Could not load the menu " + file, e);
+                }
+            }
+        } catch (IOException e) {
+            this.plugin.getLogger().log(Level.WARNING, "Could not list the menus of " + this.directory, e);
+        }
+
+        this.menus.keySet().retainAll(loaded.keySet());
+        this.menus.putAll(loaded);
+        if (cacheChanged || !cache.keySet().equals(this.compiled.keySet()))
+            this.writeCache();
+        return this;
+    }
+
+    /**
+     * Reload a menu when its file changes, until {@link QuickMenuRegistry#close()} is called or the plugin is disabled.
+     * The new layout replaces the old one at once, inventories already opened are not affected.
+     * The watcher stops within a second of the plugin being disabled, at once if {@link QuickInventoryManager#register(JavaPlugin)} was called
+     *
+     * @return The {@link QuickMenuRegistry}
+     * @throws IOException If the folder can't be watched
+     */
+    public synchronized QuickMenuRegistry watch() throws IOException {
+        if (this.watchService != null)
+            return this;
+        final WatchService watchService = this.directory.getFileSystem().newWatchService();
+        this.directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        this.watchService = watchService;
+
+        Thread watcher = new Thread(() -> this.watchLoop(watchService), "QuickInventory menu watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        QuickInventoryManager.addMenuRegistry(this);
+        return this;
+    }
+
+    /**
+     * Stop reloading the menus when their file changes, done on its own when the plugin is disabled
+     */
+    public synchronized void close() {
+        if (this.watchService == null)
+            return;
+        QuickInventoryManager.removeMenuRegistry(this);
+        try {
+            this.watchService.close();
+        } catch (IOException e) {
+            this.plugin.getLogger().log(Level.WARNING, "Could not stop watching " + this.directory, e);
+        }
+        this.watchService = null;
+    }
+
+    JavaPlugin getPlugin() {
+        return this.plugin;
+    }
+
+    /**
+     * Get a compiled menu
+     *
+     * @param name The name of the menu, its file name without extension
+     * @return The {@link QuickInventoryTemplate} of the menu, null if there is none
+     */
+    public QuickInventoryTemplate get(String name) {
+        return this.menus.get(name);
+    }
+
+    /**
+     * Open a menu to a {@link Player}
+     *
+     * @param name   The name of the menu, its file name without extension
+     * @param player The player to open the menu
+     * @return The opened {@link QuickInventory}
+     * @throws IllegalArgumentException If there is no menu with this name
+     */
+    public QuickInventory open(String name, Player player) {
+        QuickInventoryTemplate template = this.menus.get(name);
+        if (template == null)
+            throw new IllegalArgumentException("Unknown menu " + name);
+        return template.open(player);
+    }
+
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(this.menus.keySet());
+    }
+
+    private void watchLoop(WatchService watchService) {
+        try {
+            while (this.plugin.isEnabled()) {
+                WatchKey key = watchService.poll(1, TimeUnit.SECONDS);
+                if (key == null)
+                    continue;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (!(event.context() instanceof Path))
+                        continue;
+                    Path file = this.directory.resolve((Path) event.context());
+                    if (!isMenuFile(file))
+                        continue;
+                    try {
+                        this.reload(file);
+                    } catch (RuntimeException e) {
+                        this.plugin.getLogger().log(Level.WARNING, "Could not reload the menu " + file, e);
+                    }
+                }
+                if (!key.reset())
+                    return;
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Stopped by close()
+        } finally {
+            this.stopWatching(watchService);
+        }
+    }
+
+    /**
+     * Close a {@link WatchService} whose watcher stopped on its own: plugin disabled or folder deleted
+     *
+     * @param watchService The {@link WatchService} of the stopped watcher
+     */
+    private synchronized void stopWatching(WatchService watchService) {
+        if (this.watchService == watchService)
+            this.close();
+    }
+
+    /**
+     * Parse a changed menu file off the server thread, then swap its template on the server thread through the scheduler
+     * of the plugin, which throws once it is disabled. A file which fails to parse keeps its previous template
+     *
+     * @param file The changed menu file
+     */
+    private void reload(Path file) {
+        final String name = menuName(file);
+        final CachedMenu menu;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            CachedMenu previous = this.compiled.get(name);
+            if (previous != null && previous.matches(attributes))
+                return;
+            menu = new CachedMenu(attributes.size(), attributes.lastModifiedTime().toMillis(), MenuDefinition.parse(file));
+        } catch (NoSuchFileException e) {
+            this.compiled.remove(name);
+            this.plugin.getServer().getScheduler().runTask(this.plugin, () -> this.menus.remove(name));
+            this.writeCache();
+            return;
+        } catch (IOException | InvalidConfigurationException | IllegalArgumentException e) {
+            this.plugin.getLogger().log(Level.WARNING, "Could not reload the menu " + file + ", keeping the previous one", e);
+            return;
+        }
+
+        this.compiled.put(name, menu);
+        this.writeCache();
+        this.plugin.getServer().getScheduler().runTask(this.plugin, () -> {
+            this.menus.put(name, menu.definition.toTemplate(this));
+            this.plugin.getLogger().info("Reloaded the menu " + name);
+        });
+    }
+
+    private Map<String, CachedMenu> readCache() {
+        Path cacheFile = this.directory.resolve(CACHE_FILE);
+        Map<String, CachedMenu> cache = new HashMap<>();
+        if (!Files.isRegularFile(cacheFile))
+            return cache;
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+            if (input.readInt() != CACHE_MAGIC || input.readInt() != CACHE_VERSION)
+                return cache;
+            int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                String name = input.readUTF();
+                cache.put(name, new CachedMenu(input.readLong(), input.readLong(), MenuDefinition.read(input)));
+            }
+        } catch (IOException e) {
+            this.plugin.getLogger().log(Level.WARNING, "Ignoring the invalid menu cache " + cacheFile, e);
+            cache.clear();
+        }
+        return cache;
+    }
+
+    private synchronized void writeCache() {
+        Path cacheFile = this.directory.resolve(CACHE_FILE);
+        Path temporaryFile = this.directory.resolve(CACHE_FILE + ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                Map<String, CachedMenu> snapshot = new HashMap<>(this.compiled);
+                output.writeInt(CACHE_MAGIC);
+                output.writeInt(CACHE_VERSION);
+                output.writeInt(snapshot.size());
+                for (Map.Entry<String, CachedMenu> entry : snapshot.entrySet()) {
+                    output.writeUTF(entry.getKey());
+                    output.writeLong(entry.getValue().size);
+                    output.writeLong(entry.getValue().lastModified);
+                    entry.getValue().definition.write(output);
+                }
+            }
+            Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            this.plugin.getLogger().log(Level.WARNING, "Could not write the menu cache " + cacheFile, e);
+        }
+    }
+
+    private Consumer<InventoryClickEvent> resolveAction(String id) {
+        return e -> {
+            Consumer<InventoryClickEvent> action = this.actions.get(id);
+            if (action != null)
+                action.accept(e);
+        };
+    }
+
+    private static boolean isMenuFile(Path file) {
+        String fileName = file.getFileName().toString();
+        return fileName.endsWith(".yml") || fileName.endsWith(".yaml") || fileName.endsWith(".json");
+    }
+
+    private static String menuName(Path file) {
+        String fileName = file.getFileName().toString();
+        return fileName.substring(0, fileName.lastIndexOf('.'));
+    }
+
+    private static final class CachedMenu {
+
+        private final long size;
+        private final long lastModified;
+        private final MenuDefinition definition;
+
+        private CachedMenu(long size, long lastModified, MenuDefinition definition) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.definition = definition;
+        }
+
+        private boolean matches(BasicFileAttributes attributes) {
+            return this.size == attributes.size() && this.lastModified == attributes.lastModifiedTime().toMillis();
+        }
+
+    }
+
+    /**
+     * The compiled form of a menu file: its inventory and the slots with their item and action id
+     */
+    private static final class MenuDefinition {
+
+        private final InventoryType inventoryType;
+        private final String title;
+        private final int size;
+        private final List<SlotDefinition> slots;
+
+        private MenuDefinition(InventoryType inventoryType, String title, int size, List<SlotDefinition> slots) {
+            this.inventoryType = inventoryType;
+            this.title = title;
+            this.size = size;
+            this.slots = slots;
+        }
+
+        private static MenuDefinition parse(Path file) throws IOException, InvalidConfigurationException {
+            YamlConfiguration configuration = new YamlConfiguration();
+            configuration.load(file.toFile());
+
+            InventoryType inventoryType;
+            try {
+                inventoryType = InventoryType.valueOf(configuration.getString("type", "CHEST").toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown inventory type " + configuration.getString("type"));
+            }
+            int size = inventoryType == InventoryType.CHEST ? configuration.getInt("rows", 6) * 9 : inventoryType.getDefaultSize();
+            String title = ChatColor.translateAlternateColorCodes('&', configuration.getString("title", inventoryType.getDefaultTitle()));
+
+            List<SlotDefinition> slots = new ArrayList<>();
+            ConfigurationSection slotsSection = configuration.getConfigurationSection("slots");
+            if (slotsSection != null) {
+                for (String key : slotsSection.getKeys(false)) {
+                    ConfigurationSection slotSection = slotsSection.getConfigurationSection(key);
+                    if (slotSection == null)
+                        throw new IllegalArgumentException("The slot " + key + " is not a section");
+                    slots.add(new SlotDefinition(parseSlots(key, size),
+                            slotSection.contains("material") ? QuickItemSpec.fromConfig(slotSection) : null,
+                            slotSection.getString("action")));
+                }
+            }
+            return new MenuDefinition(inventoryType, title, size, slots);
+        }
+
+        private static int[] parseSlots(String key, int size) {
+            if (key.equalsIgnoreCase("borders"))
+                return QuickInventory.borderSlots(size);
+            if (key.equalsIgnoreCase("corners"))
+                return QuickInventory.cornerSlots(size);
+
+            List<Integer> slots = new ArrayList<>();
+            try {
+                for (String part : key.split(",")) {
+                    int dash = part.indexOf('-');
+                    int from = Integer.parseInt(part.substring(0, dash < 0 ? part.length() : dash).trim());
+                    int to = dash < 0 ? from : Integer.parseInt(part.substring(dash + 1).trim());
+                    for (int slot = from; slot <= to; slot++) {
+                        slots.add(slot);
+                    }
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid slot " + key);
+            }
+
+            int[] array = new int[slots.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = slots.get(i);
+                if (array[i] < 0 || array[i] >= size)
+                    throw new IllegalArgumentException("The slot " + array[i] + " is outside of the inventory");
+            }
+            return array;
+        }
+
+        private static MenuDefinition read(DataInput input) throws IOException {
+            InventoryType inventoryType = InventoryType.valueOf(input.readUTF());
+            String title = input.readUTF();
+            int size = input.readUnsignedShort();
+            int slotCount = input.readUnsignedShort();
+            List<SlotDefinition> slots = new ArrayList<>(slotCount);
+            for (int i = 0; i < slotCount; i++) {
+                int[] slotNumbers = new int[input.readUnsignedShort()];
+                for (int j = 0; j < slotNumbers.length; j++) {
+                    slotNumbers[j] = input.readUnsignedShort();
+                }
+                QuickItemSpec item = input.readBoolean() ? QuickItemSpec.read(input) : null;
+                String action = input.readBoolean() ? input.readUTF() : null;
+                slots.add(new SlotDefinition(slotNumbers, item, action));
+            }
+            return new MenuDefinition(inventoryType, title, size, slots);
+        }
+
+        private void write(DataOutput output) throws IOException {
+            output.writeUTF(this.inventoryType.name());
+            output.writeUTF(this.title);
+            writeUnsignedShort(output, this.size, "inventory size");
+            writeUnsignedShort(output, this.slots.size(), "amount of slot sections");
+            for (SlotDefinition slot : this.slots) {
+                writeUnsignedShort(output, slot.slots.length, "amount of slots");
+                for (int slotNumber : slot.slots) {
+                    writeUnsignedShort(output, slotNumber, "slot");
+                }
+                output.writeBoolean(slot.item != null);
+                if (slot.item != null)
+                    slot.item.write(output);
+                output.writeBoolean(slot.action != null);
+                if (slot.action != null)
+                    output.writeUTF(slot.action);
+            }
+        }
+
+        /**
+         * Write a value as an unsigned short, refusing the ones it would truncate
+         *
+         * @param output The output
+         * @param value  The value
+         * @param what   What the value is, for the error
+         * @throws IOException If the value does not fit
+         */
+        private static void writeUnsignedShort(DataOutput output, int value, String what) throws IOException {
+            if (value < 0 || value > 0xFFFF)
+                throw new IOException("The " + what + " " + value + " does not fit in the menu cache");
+            output.writeShort(value);
+        }
+
+        private QuickInventoryTemplate toTemplate(QuickMenuRegistry registry) {
+            QuickInventory layout = new QuickInventory(this.inventoryType, this.title, this.size);
+            for (SlotDefinition slot : this.slots) {
+                Consumer<InventoryClickEvent> action = slot.action == null ? null : registry.resolveAction(slot.action);
+                if (slot.item != null) {
+                    layout.setSlots(slot.slots, slot.item.toItemStack(), action);
+                } else {
+                    for (int slotNumber : slot.slots) {
+                        layout.setAction(slotNumber, action);
+                    }
+                }
+            }
+            return QuickInventoryTemplate.of(layout);
+        }
+
+    }
+
+    private static final class SlotDefinition {
+
+        private final int[] slots;
+        private final QuickItemSpec item;
+        private final String action;
+
+        private SlotDefinition(int[] slots, QuickItemSpec item, String action) {
+            this.slots = slots;
+            this.item = item;
+            this.action = action;
+        }
+
+    }
+
+}
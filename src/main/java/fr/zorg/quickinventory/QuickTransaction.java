@@ -0,0 +1,245 @@
+package fr.zorg.quickinventory;
+
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.Consumer;
+
+/**
+ * A batch of item and action changes on a {@link QuickInventory}.
+ * Only the staged slots are kept: on commit they are laid over the contents the inventory has at that moment,
+ * applied with a single {@link Inventory#setContents(ItemStack[])} and one inventory update per viewer.
+ * The other slots keep whatever changed since the transaction was created, and the live slots and animations
+ * of the overwritten slots are stopped
+ *
+ * @author <a href="https://github.com/ZorgBtw">Zorg</a>
+ * @see QuickInventory#edit(Consumer)
+ */
+public final class QuickTransaction {
+
+    private final QuickInventory quickInventory;
+    private final ItemStack[] items;
+    private final BitSet changedItems;
+    private final Consumer<InventoryClickEvent>[] actions;
+    private final BitSet changedActions;
+
+    QuickTransaction(QuickInventory quickInventory) {
+        this.quickInventory = quickInventory;
+        int size = quickInventory.getInventory().getSize();
+        this.items = new ItemStack[size];
+        this.changedItems = new BitSet(size);
+        this.actions = QuickInventory.newActionTable(size);
+        this.changedActions = new BitSet(size);
+    }
+
+    /**
+     * Stage a slot change to an {@link ItemStack}, with an action to perform when this item is clicked
+     *
+     * @param slot   The slot to set
+     * @param item   The {@link ItemStack} to set
+     * @param action The action to perform when the item is clicked in the inventory
+     * @return The {@link QuickTransaction}
+     */
+    public QuickTransaction setSlot(int slot, ItemStack item, Consumer<InventoryClickEvent> action) {
+        this.setItem(slot, item);
+        this.actions[slot] = action;
+        this.changedActions.set(slot);
+        return this;
+    }
+
+    /**
+     * Stage a slot change to an {@link ItemStack}
+     *
+     * @param slot The slot to set
+     * @param item The {@link ItemStack} to set
+     * @return The {@link QuickTransaction}
+     */
+    public QuickTransaction setSlot(int slot, ItemStack item) {
+        return this.setSlot(slot, item, null);
+    }
+
+    /**
+     * Stage a slot change to a {@link QuickItem}
+     *
+     * @param slot      The slot to set
+     * @param quickItem The {@link QuickItem} to set, don't need to build it directly
+     * @return The {@link QuickTransaction}
+     */
+    public QuickTransaction setSlot(int slot, QuickItem quickItem) {
+        return this.setSlot(slot, quickItem.build(), null);
+    }
+
+    /**
+     * Stage a slot change to a {@link QuickItem}, with an action to perform when this item is clicked
+     *
+     * @param slot      The slot to set
+     * @param quickItem The {@link QuickItem} to set, don't need to build it directly
+     * @param action    The action to perform when the item is clicked in the inventory
+     * @return The {@link QuickTransaction}
+     */
+    public QuickTransaction setSlot(int slot, QuickItem quickItem, Consumer<InventoryClickEvent> action) {
+        return this.setSlot(slot, quickItem.build(), action);
+    }
+
+    /**
+     * Stage a slot change to an {@link ItemStack}, keeping the actions bound to the slot
+     *
+     * @param slot The slot to set
+     * @param item The {@link ItemStack} to set
+     * @return The {@link QuickTransaction}
+     */
+    public QuickTransaction setItem(int slot, ItemStack item) {
+        this.items[slot] = item;
+        this.changedItems.set(slot);
+        return this;
+    }
+
+    /**
+     * Stage multiple slot changes to an {@link ItemStack}, with an action to perform
+     *
+     * @param slots  The slots to set
+     * @param item   The item to set
+     * @param action The action to perform when an item is clicked
+     * @return The {@link QuickTransaction}
+     */
+    public QuickTransaction setSlots(int[] slots, ItemStack item, Consumer<InventoryClickEvent> action) {
+        for (int slot : slots) {
+            this.setSlot(slot, item, action);
+        }
+        return this;
+    }
+
+    /**
+     * Stage multiple slot changes to an {@link ItemStack}
+     *
+     * @param slots The slots to set
+     * @param item  The item to set
+     * @return The {@link QuickTransaction}
+     */
+    public QuickTransaction setSlots(int[] slots, ItemStack item) {
+        return this.setSlots(slots, item, null);
+    }
+
+    /**
+     * Stage the borders of the {@link QuickInventory} to a {@link QuickItem}, with an action
+     *
+     * @param quickItem The {@link QuickItem} to set
+     * @param action    The action to trigger when one of the item is clicked
+     * @return The {@link QuickTransaction}
+     * @see QuickInventory#setBorders(QuickItem, Consumer)
+     */
+    public QuickTransaction setBorders(QuickItem quickItem, Consumer<InventoryClickEvent> action) {
+        return this.setSlots(QuickInventory.borderSlots(this.items.length), quickItem.build(), action);
+    }
+
+    /**
+     * Stage the borders of the {@link QuickInventory} to a {@link QuickItem}
+     *
+     * @param quickItem The {@link QuickItem} to set
+     * @return The {@link QuickTransaction}
+     * @see QuickInventory#setBorders(QuickItem)
+     */
+    public QuickTransaction setBorders(QuickItem quickItem) {
+        return this.setBorders(quickItem, null);
+    }
+
+    /**
+     * Stage the corners of the {@link QuickInventory} to a {@link QuickItem}, with an action
+     *
+     * @param quickItem The {@link QuickItem} to set
+     * @param action    The action to trigger when one of the item is clicked
+     * @return The {@link QuickTransaction}
+     * @see QuickInventory#setCorners(QuickItem, Consumer)
+     */
+    public QuickTransaction setCorners(QuickItem quickItem, Consumer<InventoryClickEvent> action) {
+        return this.setSlots(QuickInventory.cornerSlots(this.items.length), quickItem.build(), action);
+    }
+
+    /**
+     * Stage the corners of the {@link QuickInventory} to a {@link QuickItem}
+     *
+     * @param quickItem The {@link QuickItem} to set
+     * @return The {@link QuickTransaction}
+     * @see QuickInventory#setCorners(QuickItem)
+     */
+    public QuickTransaction setCorners(QuickItem quickItem) {
+        return this.setCorners(quickItem, null);
+    }
+
+    /**
+     * Stage the removal of the item and the actions of a slot
+     *
+     * @param slot The slot to clear
+     * @return The {@link QuickTransaction}
+     */
+    public QuickTransaction clear(int slot) {
+        return this.setSlot(slot, (ItemStack) null, null);
+    }
+
+    /**
+     * Stage the removal of every item and action of the {@link QuickInventory}
+     *
+     * @return The {@link QuickTransaction}
+     */
+    public QuickTransaction clear() {
+        Arrays.fill(this.items, null);
+        Arrays.fill(this.actions, null);
+        this.changedItems.set(0, this.items.length);
+        this.changedActions.set(0, this.items.length);
+        return this;
+    }
+
+    /**
+     * Return the staged item of a slot. The inventory itself is never read, a transaction may be filled off the server thread
+     *
+     * @param slot The slot
+     * @return The staged {@link ItemStack}, or null if the slot is staged empty or not staged
+     */
+    public ItemStack getItem(int slot) {
+        return this.items[slot];
+    }
+
+    /**
+     * Check if a slot change is staged
+     *
+     * @param slot The slot
+     * @return True if the item of the slot is overwritten on commit
+     */
+    public boolean isStaged(int slot) {
+        return this.changedItems.get(slot);
+    }
+
+    /**
+     * Return the size of the edited {@link QuickInventory}
+     *
+     * @return The amount of slots
+     */
+    public int getSize() {
+        return this.items.length;
+    }
+
+    /**
+     * Apply the staged changes, on the server thread
+     */
+    void commit() {
+        for (int slot = this.changedActions.nextSetBit(0); slot >= 0; slot = this.changedActions.nextSetBit(slot + 1)) {
+            this.quickInventory.setAction(slot, this.actions[slot]);
+        }
+
+        if (this.changedItems.isEmpty())
+            return;
+
+        Inventory inventory = this.quickInventory.getInventory();
+        ItemStack[] contents = inventory.getContents();
+        for (int slot = this.changedItems.nextSetBit(0); slot >= 0; slot = this.changedItems.nextSetBit(slot + 1)) {
+            this.quickInventory.cancelSlotTask(slot);
+            contents[slot] = this.items[slot];
+        }
+        inventory.setContents(contents);
+        this.quickInventory.updateViewers();
+    }
+
+}
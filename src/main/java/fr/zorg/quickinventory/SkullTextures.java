@@ -0,0 +1,215 @@
+package fr.zorg.quickinventory;
+
+import org.bukkit.inventory.meta.SkullMeta;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * Applies Base64 textures to skulls for {@link QuickItem#setBase64SkullValue(String)}.
+ * The authlib members are resolved once into {@link MethodHandle}s and the immutable parts of a texture, its profile id
+ * and its property, are kept in a bounded LRU cache keyed by the texture. Every skull gets its own game profile,
+ * game profiles are mutable so none is shared between two skulls
+ *
+ * @author <a href="https://github.com/ZorgBtw">Zorg</a>
+ */
+public final class SkullTextures {
+
+    private static final MethodHandle NEW_GAME_PROFILE;
+    private static final MethodHandle NEW_PROPERTY;
+    private static final MethodHandle GET_PROPERTIES;
+    private static final MethodHandle PUT_PROPERTY;
+
+    /**
+     * Setter of the "profile" field of the server skull meta, resolved on the first skull since its class is only known at runtime
+     */
+    private static volatile MethodHandle profileSetter;
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    private static int capacity = 512;
+
+    private static final Map<String, Texture> textures = new LinkedHashMap<String, Texture>(16, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Texture> eldest) {
+            return this.size() > capacity;
+        }
+    };
+
+    static {
+        MethodHandle newGameProfile = null;
+        MethodHandle newProperty = null;
+        MethodHandle getProperties = null;
+        MethodHandle putProperty = null;
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            final Class<?> gameProfileClass = Class.forName("com.mojang.authlib.GameProfile");
+            final Class<?> propertyClass = Class.forName("com.mojang.authlib.properties.Property");
+            final Class<?> propertyMapClass = Class.forName("com.mojang.authlib.properties.PropertyMap");
+
+            newGameProfile = lookup.unreflectConstructor(gameProfileClass.getConstructor(UUID.class, String.class))
+                    .asType(MethodType.methodType(Object.class, UUID.class, String.class));
+            newProperty = lookup.unreflectConstructor(propertyClass.getConstructor(String.class, String.class))
+                    .asType(MethodType.methodType(Object.class, String.class, String.class));
+            getProperties = lookup.unreflect(gameProfileClass.getMethod("getProperties"))
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            putProperty = lookup.unreflect(propertyMapClass.getMethod("put", Object.class, Object.class))
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            QuickInventoryManager.getLogger().log(Level.WARNING, "Skull textures are not supported by this server", e);
+        }
+        NEW_GAME_PROFILE = newGameProfile;
+        NEW_PROPERTY = newProperty;
+        GET_PROPERTIES = getProperties;
+        PUT_PROPERTY = putProperty;
+    }
+
+    private SkullTextures() {
+    }
+
+    /**
+     * Applies a Base64 texture to a {@link SkullMeta}
+     *
+     * @param skullMeta The {@link SkullMeta} to modify
+     * @param base64    The Base64 texture value
+     * @return True if the texture was applied
+     */
+    static boolean apply(SkullMeta skullMeta, String base64) {
+        if (NEW_GAME_PROFILE == null)
+            return false;
+
+        try {
+            MethodHandle setter = profileSetter;
+            if (setter == null) {
+                Field profileField = skullMeta.getClass().getDeclaredField("profile");
+                profileField.setAccessible(true);
+                setter = MethodHandles.lookup().unreflectSetter(profileField)
+                        .asType(MethodType.methodType(void.class, Object.class, Object.class));
+                profileSetter = setter;
+            }
+
+            setter.invokeExact((Object) skullMeta, newProfile(getTexture(base64)));
+            return true;
+        } catch (Throwable e) {
+            QuickInventoryManager.getLogger().log(Level.WARNING, "Could not apply a skull texture", e);
+            return false;
+        }
+    }
+
+    /**
+     * Build a new game profile holding a texture
+     *
+     * @param texture The texture
+     * @return A game profile owned by a single skull
+     */
+    private static Object newProfile(Texture texture) throws Throwable {
+        final Object profile = (Object) NEW_GAME_PROFILE.invokeExact(texture.id, "");
+        final Object propertyMap = (Object) GET_PROPERTIES.invokeExact(profile);
+        PUT_PROPERTY.invokeExact(propertyMap, (Object) "textures", texture.property);
+        return profile;
+    }
+
+    private static Texture getTexture(String base64) throws Throwable {
+        synchronized (textures) {
+            Texture texture = textures.get(base64);
+            if (texture != null) {
+                hits.increment();
+                return texture;
+            }
+        }
+        misses.increment();
+
+        // Same texture, same profile id: lets the client reuse the skin it already downloaded
+        final UUID id = UUID.nameUUIDFromBytes(base64.getBytes(StandardCharsets.UTF_8));
+        final Texture texture = new Texture(id, (Object) NEW_PROPERTY.invokeExact("texture", base64));
+
+        synchronized (textures) {
+            textures.put(base64, texture);
+        }
+        return texture;
+    }
+
+    /**
+     * Set the maximum amount of textures kept in the cache, the least recently used ones are evicted down to it
+     *
+     * @param capacity The maximum amount of cached textures
+     */
+    public static void setCacheCapacity(int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("The capacity can't be negative");
+        synchronized (textures) {
+            SkullTextures.capacity = capacity;
+            Iterator<String> eldest = textures.keySet().iterator();
+            while (textures.size() > capacity) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Empties the texture cache and resets its counters
+     */
+    public static void clearCache() {
+        synchronized (textures) {
+            textures.clear();
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * Return the amount of textures currently cached
+     *
+     * @return The size of the cache
+     */
+    public static int getCacheSize() {
+        synchronized (textures) {
+            return textures.size();
+        }
+    }
+
+    /**
+     * Return the amount of textures found in the cache
+     *
+     * @return The cache hits
+     */
+    public static long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Return the amount of textures that had to be built
+     *
+     * @return The cache misses
+     */
+    public static long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * The immutable parts of a texture, shared by every skull using it
+     */
+    private static final class Texture {
+
+        private final UUID id;
+        private final Object property;
+
+        private Texture(UUID id, Object property) {
+            this.id = id;
+            this.property = property;
+        }
+
+    }
+
+}
@@ -0,0 +1,67 @@
+package fr.zorg.quickinventory;
+
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * A slot of a {@link QuickInventory} cycling through frames, each shown for its own amount of ticks
+ *
+ * @see QuickInventory#setAnimation(int, long[], QuickItem[], java.util.function.Consumer)
+ */
+final class SlotAnimation extends TimingWheel.Task {
+
+    private final SlotBatch batch;
+    private final int slot;
+    private final ItemStack[] frames;
+    private final long[] durations;
+    private int frame;
+
+    SlotAnimation(SlotBatch batch, int slot, ItemStack[] frames, long[] durations) {
+        if (frames.length == 0 || frames.length != durations.length)
+            throw new IllegalArgumentException("An animation needs at least one frame and one duration per frame");
+        for (long duration : durations) {
+            if (duration < 1)
+                throw new IllegalArgumentException("A frame must last at least 1 tick");
+        }
+        this.batch = batch;
+        this.slot = slot;
+        this.frames = frames;
+        this.durations = durations;
+    }
+
+    /**
+     * Write the current frame to the slot
+     */
+    void show() {
+        this.batch.setItem(this.slot, this.frames[this.frame]);
+    }
+
+    long getFrameDuration() {
+        return this.durations[this.frame];
+    }
+
+    /**
+     * Copy the animation, unscheduled, on the same frame and due at the same tick
+     *
+     * @return A new {@link SlotAnimation} writing to the same slot
+     */
+    SlotAnimation copy() {
+        SlotAnimation copy = new SlotAnimation(this.batch, this.slot, this.frames, this.durations);
+        copy.frame = this.frame;
+        copy.setDeadline(this.getDeadline());
+        return copy;
+    }
+
+    /**
+     * Show the next frame
+     *
+     * @param tick The current tick
+     * @return The tick of the following frame
+     */
+    @Override
+    long run(long tick) {
+        this.frame = (this.frame + 1) % this.frames.length;
+        this.show();
+        return tick + this.durations[this.frame];
+    }
+
+}
@@ -0,0 +1,100 @@
+package fr.zorg.quickinventory;
+
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The items written by the live slots and animations of an {@link Inventory} during a tick, flushed once at the end of the tick.
+ * Outside of a tick, such as when a live slot is set, items are written at once.
+ * A single changed slot is written with {@link Inventory#setItem(int, ItemStack)}, several are laid over the contents
+ * and applied with a single {@link Inventory#setContents(ItemStack[])} and one inventory update per viewer,
+ * like {@link QuickTransaction#commit()}. Only used on the server thread
+ *
+ * @author <a href="https://github.com/ZorgBtw">Zorg</a>
+ */
+final class SlotBatch {
+
+    /**
+     * Batches with staged items during the current tick
+     */
+    private static final List<SlotBatch> pending = new ArrayList<>();
+    private static boolean staging;
+
+    private final Inventory inventory;
+    private final ItemStack[] items;
+    private final BitSet changedItems;
+
+    SlotBatch(Inventory inventory) {
+        this.inventory = inventory;
+        this.items = new ItemStack[inventory.getSize()];
+        this.changedItems = new BitSet(this.items.length);
+    }
+
+    /**
+     * Stage an item until the end of the tick, or write it at once outside of a tick
+     *
+     * @param slot The slot
+     * @param item The item, null to empty the slot
+     */
+    void setItem(int slot, ItemStack item) {
+        if (!staging) {
+            this.inventory.setItem(slot, item);
+            return;
+        }
+        if (this.changedItems.isEmpty())
+            pending.add(this);
+        this.items[slot] = item;
+        this.changedItems.set(slot);
+    }
+
+    /**
+     * Write the staged items to the inventory
+     */
+    private void flush() {
+        int count = this.changedItems.cardinality();
+        if (count == 1) {
+            int slot = this.changedItems.nextSetBit(0);
+            this.inventory.setItem(slot, this.items[slot]);
+        } else if (count > 1) {
+            ItemStack[] contents = this.inventory.getContents();
+            for (int slot = this.changedItems.nextSetBit(0); slot >= 0; slot = this.changedItems.nextSetBit(slot + 1)) {
+                contents[slot] = this.items[slot];
+            }
+            this.inventory.setContents(contents);
+            for (HumanEntity viewer : this.inventory.getViewers()) {
+                if (viewer instanceof Player)
+                    ((Player) viewer).updateInventory();
+            }
+        }
+
+        for (int slot = this.changedItems.nextSetBit(0); slot >= 0; slot = this.changedItems.nextSetBit(slot + 1)) {
+            this.items[slot] = null;
+        }
+        this.changedItems.clear();
+    }
+
+    /**
+     * Stage the items written until {@link SlotBatch#flushStaged()}, at the start of a tick
+     */
+    static void startStaging() {
+        staging = true;
+    }
+
+    /**
+     * Flush every batch staged since {@link SlotBatch#startStaging()}, at the end of a tick
+     */
+    static void flushStaged() {
+        staging = false;
+        for (int i = 0; i < pending.size(); i++) {
+            pending.get(i).flush();
+        }
+        pending.clear();
+    }
+
+}
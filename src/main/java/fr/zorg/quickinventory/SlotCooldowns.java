@@ -0,0 +1,195 @@
+package fr.zorg.quickinventory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The last click of each player on each slot of one {@link QuickInventory}, checked by the {@link ClickThrottle} against its debounce
+ * and the cooldowns set with {@link QuickInventory#setClickCooldown(int, long, java.util.concurrent.TimeUnit)}.
+ * Clicking another slot or another inventory does not reset the cooldown of a slot. The clicks of a player are only kept
+ * while one of their slots cools down, so a long-lived shared inventory does not remember every player who ever clicked it.
+ * Only used on the server thread
+ *
+ * @author <a href="https://github.com/ZorgBtw">Zorg</a>
+ */
+final class SlotCooldowns {
+
+    private static final int MIN_PRUNE_THRESHOLD = 16;
+
+    private final int size;
+
+    /**
+     * Minimum nanoseconds between two clicks of a player on a slot, indexed by slot. Only allocated once a cooldown is set
+     */
+    private long[] cooldowns;
+
+    /**
+     * The last accepted clicks of each player. Only allocated once a click is recorded
+     */
+    private Map<UUID, Clicks> lastClicks;
+
+    /**
+     * Amount of players above which the next new player first drops the clicks no longer cooling down
+     */
+    private int pruneThreshold = MIN_PRUNE_THRESHOLD;
+
+    SlotCooldowns(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Copy the cooldowns of the slots, without the clicks of the players
+     *
+     * @return A new {@link SlotCooldowns}
+     */
+    SlotCooldowns copy() {
+        SlotCooldowns copy = new SlotCooldowns(this.size);
+        copy.cooldowns = this.cooldowns == null ? null : this.cooldowns.clone();
+        return copy;
+    }
+
+    /**
+     * Set the cooldown of a slot
+     *
+     * @param slot     The slot
+     * @param cooldown The cooldown in nanoseconds, 0 to remove it
+     */
+    void set(int slot, long cooldown) {
+        if (this.cooldowns == null)
+            this.cooldowns = new long[this.size];
+        this.cooldowns[slot] = cooldown;
+    }
+
+    /**
+     * Get the cooldown of a slot
+     *
+     * @param slot The slot
+     * @return The cooldown in nanoseconds, 0 if there is none
+     */
+    long get(int slot) {
+        return this.cooldowns == null || slot < 0 || slot >= this.cooldowns.length ? 0 : this.cooldowns[slot];
+    }
+
+    /**
+     * Check if a slot still cools down for a player
+     *
+     * @param player   The player
+     * @param slot     The slot
+     * @param debounce The minimum nanoseconds between two clicks on any slot
+     * @param now      The current {@link System#nanoTime()}
+     * @return True if the last click of the player on this slot is more recent than its cooldown
+     */
+    boolean isCoolingDown(UUID player, int slot, long debounce, long now) {
+        if (this.lastClicks == null || slot < 0 || slot >= this.size)
+            return false;
+        Clicks clicks = this.lastClicks.get(player);
+        return clicks != null && this.isCoolingDown(clicks, slot, debounce, now);
+    }
+
+    /**
+     * Record an accepted click, if the slot has a cooldown. The first click of a player drops the clicks of the others
+     * no longer cooling down once there are many of them
+     *
+     * @param player   The player
+     * @param slot     The slot
+     * @param debounce The minimum nanoseconds between two clicks on any slot
+     * @param now      The current {@link System#nanoTime()}
+     */
+    void record(UUID player, int slot, long debounce, long now) {
+        long cooldown = Math.max(debounce, this.get(slot));
+        if (slot < 0 || slot >= this.size || cooldown == 0)
+            return;
+        if (this.lastClicks == null)
+            this.lastClicks = new HashMap<>();
+        Clicks clicks = this.lastClicks.get(player);
+        if (clicks == null) {
+            if (this.lastClicks.size() >= this.pruneThreshold) {
+                this.prune(now);
+                this.pruneThreshold = Math.max(MIN_PRUNE_THRESHOLD, this.lastClicks.size() * 2);
+            }
+            clicks = new Clicks(this.size, now);
+            this.lastClicks.put(player, clicks);
+        }
+        clicks.slots[slot] = now;
+        if (clicks.isExpired(now + cooldown))
+            clicks.coolingUntil = now + cooldown;
+    }
+
+    /**
+     * Forget the clicks of a player closing the {@link QuickInventory}, unless a slot still cools down for them
+     * so closing and reopening a shared inventory does not skip a cooldown. Kept clicks are dropped by a later
+     * {@link SlotCooldowns#record(UUID, int, long, long)} once they no longer cool down
+     *
+     * @param player The player
+     * @param now    The current {@link System#nanoTime()}
+     */
+    void expire(UUID player, long now) {
+        if (this.lastClicks == null)
+            return;
+        Clicks clicks = this.lastClicks.get(player);
+        if (clicks != null && clicks.isExpired(now))
+            this.lastClicks.remove(player);
+    }
+
+    /**
+     * Drop the clicks of every player whose slots no longer cool down
+     *
+     * @param now The current {@link System#nanoTime()}
+     */
+    void prune(long now) {
+        if (this.lastClicks != null)
+            this.lastClicks.values().removeIf(clicks -> clicks.isExpired(now));
+    }
+
+    /**
+     * Forget the clicks of a player, when they leave
+     *
+     * @param player The player
+     */
+    void forget(UUID player) {
+        if (this.lastClicks != null)
+            this.lastClicks.remove(player);
+    }
+
+    /**
+     * Return the amount of players whose clicks are remembered
+     *
+     * @return The amount of players
+     */
+    int getPlayerCount() {
+        return this.lastClicks == null ? 0 : this.lastClicks.size();
+    }
+
+    private boolean isCoolingDown(Clicks clicks, int slot, long debounce, long now) {
+        long cooldown = Math.max(debounce, this.get(slot));
+        return cooldown > 0 && clicks.slots[slot] != 0 && now - clicks.slots[slot] < cooldown;
+    }
+
+    /**
+     * The last accepted clicks of a player
+     */
+    private static final class Clicks {
+
+        /**
+         * The {@link System#nanoTime()} of the last accepted click on each slot, 0 if the slot was never clicked
+         */
+        private final long[] slots;
+
+        /**
+         * The {@link System#nanoTime()} after which no slot cools down anymore, with the cooldowns in effect when clicking
+         */
+        private long coolingUntil;
+
+        private Clicks(int size, long now) {
+            this.slots = new long[size];
+            this.coolingUntil = now;
+        }
+
+        private boolean isExpired(long now) {
+            return now - this.coolingUntil >= 0;
+        }
+
+    }
+
+}
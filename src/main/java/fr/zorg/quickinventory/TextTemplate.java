@@ -0,0 +1,90 @@
+package fr.zorg.quickinventory;
+
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A text with placeholders such as {@code "Balance: {coins}"}, parsed once into literal and placeholder segments.
+ * Color codes using {@code &} are translated when compiling
+ *
+ * @author <a href="https://github.com/ZorgBtw">Zorg</a>
+ */
+public final class TextTemplate {
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(64));
+
+    /**
+     * Literal segments, one more than the placeholders: literals[0] placeholders[0] literals[1] ...
+     */
+    private final String[] literals;
+    private final String[] placeholders;
+
+    private TextTemplate(String[] literals, String[] placeholders) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+    }
+
+    /**
+     * Compiles a text into a {@link TextTemplate}
+     *
+     * @param text The text, placeholders are written {@code {name}}
+     * @return A new {@link TextTemplate}
+     */
+    public static TextTemplate compile(String text) {
+        final String translated = ChatColor.translateAlternateColorCodes('&', text);
+        final List<String> literals = new ArrayList<>();
+        final List<String> placeholders = new ArrayList<>();
+
+        int literalStart = 0;
+        int open = translated.indexOf('{');
+        while (open >= 0) {
+            int close = translated.indexOf('}', open + 1);
+            if (close < 0)
+                break;
+            literals.add(translated.substring(literalStart, open));
+            placeholders.add(translated.substring(open + 1, close));
+            literalStart = close + 1;
+            open = translated.indexOf('{', literalStart);
+        }
+        literals.add(translated.substring(literalStart));
+
+        return new TextTemplate(literals.toArray(new String[0]), placeholders.toArray(new String[0]));
+    }
+
+    /**
+     * Renders the template, a placeholder resolved to null is kept as is
+     *
+     * @param resolver The value of a placeholder, from its name
+     * @return The rendered text
+     */
+    public String render(Function<String, ?> resolver) {
+        if (this.placeholders.length == 0)
+            return this.literals[0];
+
+        final StringBuilder builder = BUFFER.get();
+        builder.setLength(0);
+        builder.append(this.literals[0]);
+        for (int i = 0; i < this.placeholders.length; i++) {
+            Object value = resolver.apply(this.placeholders[i]);
+            if (value == null)
+                builder.append('{').append(this.placeholders[i]).append('}');
+            else
+                builder.append(value);
+            builder.append(this.literals[i + 1]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Check if the template has no placeholder
+     *
+     * @return True if the template always renders the same text
+     */
+    public boolean isConstant() {
+        return this.placeholders.length == 0;
+    }
+
+}
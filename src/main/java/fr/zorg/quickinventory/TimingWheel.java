@@ -0,0 +1,129 @@
+package fr.zorg.quickinventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * A hashed timing wheel of tasks keyed by the tick they are due, advanced once per tick by {@link QuickInventoryManager}.
+ * A tick only looks at the tasks of one bucket, so the cost of a tick does not grow with the amount of idle tasks.
+ * Only used from the server thread
+ *
+ * @author <a href="https://github.com/ZorgBtw">Zorg</a>
+ */
+final class TimingWheel {
+
+    private final List<Task>[] buckets;
+    private final int mask;
+
+    /**
+     * Tasks due on the current tick, collected before running them so a task may cancel or schedule others
+     */
+    private final List<Task> due = new ArrayList<>();
+
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(int size) {
+        if (Integer.bitCount(size) != 1)
+            throw new IllegalArgumentException("The size of the wheel must be a power of two");
+        this.buckets = (List<Task>[]) new List[size];
+        for (int i = 0; i < size; i++) {
+            this.buckets[i] = new ArrayList<>();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Schedule a task, replacing its previous schedule
+     *
+     * @param task     The task
+     * @param deadline The tick the task is due, the next tick if it already passed
+     */
+    void schedule(Task task, long deadline) {
+        this.cancel(task);
+        task.deadline = Math.max(deadline, this.tick + 1);
+        task.scheduled = true;
+        this.buckets[(int) (task.deadline & this.mask)].add(task);
+    }
+
+    /**
+     * Cancel a task, it keeps its deadline so it may be scheduled again later
+     *
+     * @param task The task
+     */
+    void cancel(Task task) {
+        if (!task.scheduled)
+            return;
+        task.scheduled = false;
+        this.buckets[(int) (task.deadline & this.mask)].remove(task);
+    }
+
+    /**
+     * Run the tasks due on a tick
+     *
+     * @param tick The new current tick
+     */
+    void advance(long tick) {
+        this.tick = tick;
+        final List<Task> bucket = this.buckets[(int) (tick & this.mask)];
+        for (int i = bucket.size() - 1; i >= 0; i--) {
+            Task task = bucket.get(i);
+            if (task.deadline > tick)
+                continue;
+            bucket.set(i, bucket.get(bucket.size() - 1));
+            bucket.remove(bucket.size() - 1);
+            this.due.add(task);
+        }
+
+        for (int i = 0; i < this.due.size(); i++) {
+            Task task = this.due.get(i);
+            if (!task.scheduled)
+                continue;
+            task.scheduled = false;
+            long next;
+            try {
+                next = task.run(tick);
+            } catch (RuntimeException e) {
+                QuickInventoryManager.getLogger().log(Level.SEVERE, "A QuickInventory slot task failed and was stopped", e);
+                continue;
+            }
+            if (next > tick && !task.scheduled)
+                this.schedule(task, next);
+        }
+        this.due.clear();
+    }
+
+    /**
+     * A task scheduled on a {@link TimingWheel}
+     */
+    abstract static class Task {
+
+        private long deadline;
+        private boolean scheduled;
+
+        /**
+         * Run the task
+         *
+         * @param tick The current tick
+         * @return The tick the task is due again, or a tick not after the current one to stop it
+         */
+        abstract long run(long tick);
+
+        long getDeadline() {
+            return this.deadline;
+        }
+
+        /**
+         * Set the tick the task is due when it is scheduled again
+         *
+         * @param deadline The next deadline
+         */
+        void setDeadline(long deadline) {
+            if (!this.scheduled)
+                this.deadline = deadline;
+        }
+
+    }
+
+}
@@ -0,0 +1,49 @@
+package fr.zorg.quickinventory;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * A pool of canonical values, so equal values are stored once. A value only stays pooled while something else references it,
+ * per-player values such as balances in a lore go away with the last item using them
+ *
+ * @param <T> The type of the values, must be immutable
+ * @author <a href="https://github.com/ZorgBtw">Zorg</a>
+ */
+final class WeakInterner<T> {
+
+    private final Map<T, WeakReference<T>> pool = new WeakHashMap<>();
+
+    /**
+     * Return the pooled value equal to a value, pooling an immutable copy of it if there is none
+     *
+     * @param value The value
+     * @param copy  Makes the immutable copy to pool
+     * @return The pooled value
+     */
+    synchronized T intern(T value, UnaryOperator<T> copy) {
+        WeakReference<T> reference = this.pool.get(value);
+        T pooled = reference == null ? null : reference.get();
+        if (pooled != null)
+            return pooled;
+        pooled = copy.apply(value);
+        this.pool.put(pooled, new WeakReference<>(pooled));
+        return pooled;
+    }
+
+    synchronized void clear() {
+        this.pool.clear();
+    }
+
+    /**
+     * Return the amount of pooled values, including the ones no longer referenced but not yet collected
+     *
+     * @return The size of the pool
+     */
+    synchronized int size() {
+        return this.pool.size();
+    }
+
+}
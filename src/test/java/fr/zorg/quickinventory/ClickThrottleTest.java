@@ -0,0 +1,137 @@
+package fr.zorg.quickinventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClickThrottleTest {
+
+    private static final long START = TimeUnit.SECONDS.toNanos(1);
+    private static final UUID PLAYER = UUID.randomUUID();
+
+    private static long at(long millis) {
+        return START + TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @Test
+    void slotCooldownSurvivesClicksOnOtherSlots() {
+        ClickThrottle throttle = new ClickThrottle();
+        SlotCooldowns cooldowns = new SlotCooldowns(54);
+        cooldowns.set(22, TimeUnit.MILLISECONDS.toNanos(250));
+
+        assertTrue(throttle.tryAcquire(PLAYER, 22, cooldowns, at(0)));
+        assertTrue(throttle.tryAcquire(PLAYER, 23, cooldowns, at(10)));
+        assertFalse(throttle.tryAcquire(PLAYER, 22, cooldowns, at(20)));
+        assertTrue(throttle.tryAcquire(PLAYER, 23, cooldowns, at(30)));
+        assertFalse(throttle.tryAcquire(PLAYER, 22, cooldowns, at(249)));
+        assertTrue(throttle.tryAcquire(PLAYER, 22, cooldowns, at(250)));
+        assertEquals(2, throttle.getRejectedByDebounce());
+    }
+
+    @Test
+    void debounceAppliesPerSlot() {
+        ClickThrottle throttle = new ClickThrottle().setDebounce(100, TimeUnit.MILLISECONDS);
+        SlotCooldowns cooldowns = new SlotCooldowns(27);
+
+        assertTrue(throttle.tryAcquire(PLAYER, 11, cooldowns, at(0)));
+        assertTrue(throttle.tryAcquire(PLAYER, 15, cooldowns, at(10)));
+        assertFalse(throttle.tryAcquire(PLAYER, 11, cooldowns, at(20)));
+        assertFalse(throttle.tryAcquire(PLAYER, 15, cooldowns, at(30)));
+        assertTrue(throttle.tryAcquire(PLAYER, 11, cooldowns, at(100)));
+    }
+
+    @Test
+    void cooldownsAreScopedToTheirInventory() {
+        ClickThrottle throttle = new ClickThrottle();
+        SlotCooldowns shop = new SlotCooldowns(54);
+        SlotCooldowns bank = new SlotCooldowns(54);
+        shop.set(22, TimeUnit.MILLISECONDS.toNanos(250));
+        bank.set(22, TimeUnit.MILLISECONDS.toNanos(250));
+
+        assertTrue(throttle.tryAcquire(PLAYER, 22, shop, at(0)));
+        assertTrue(throttle.tryAcquire(PLAYER, 22, bank, at(10)));
+        assertFalse(throttle.tryAcquire(PLAYER, 22, shop, at(20)));
+        assertTrue(throttle.tryAcquire(UUID.randomUUID(), 22, shop, at(20)));
+    }
+
+    @Test
+    void rejectedClickDoesNotRestartTheCooldown() {
+        ClickThrottle throttle = new ClickThrottle();
+        SlotCooldowns cooldowns = new SlotCooldowns(9);
+        cooldowns.set(4, TimeUnit.MILLISECONDS.toNanos(250));
+
+        assertTrue(throttle.tryAcquire(PLAYER, 4, cooldowns, at(0)));
+        assertFalse(throttle.tryAcquire(PLAYER, 4, cooldowns, at(200)));
+        assertTrue(throttle.tryAcquire(PLAYER, 4, cooldowns, at(260)));
+    }
+
+    @Test
+    void rateLimitRejectsBurstsAboveTolerance() {
+        ClickThrottle throttle = new ClickThrottle().setRateLimit(10, 2);
+        SlotCooldowns cooldowns = new SlotCooldowns(9);
+
+        assertTrue(throttle.tryAcquire(PLAYER, 0, cooldowns, at(0)));
+        assertTrue(throttle.tryAcquire(PLAYER, 1, cooldowns, at(1)));
+        assertFalse(throttle.tryAcquire(PLAYER, 2, cooldowns, at(2)));
+        assertTrue(throttle.tryAcquire(PLAYER, 2, cooldowns, at(100)));
+        assertEquals(1, throttle.getRejectedByRate());
+    }
+
+    @Test
+    void copyKeepsCooldownsButNotClicks() {
+        ClickThrottle throttle = new ClickThrottle();
+        SlotCooldowns cooldowns = new SlotCooldowns(9);
+        cooldowns.set(4, TimeUnit.MILLISECONDS.toNanos(250));
+        assertTrue(throttle.tryAcquire(PLAYER, 4, cooldowns, at(0)));
+
+        SlotCooldowns copy = cooldowns.copy();
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(250), copy.get(4));
+        assertEquals(0, copy.getPlayerCount());
+        assertTrue(throttle.tryAcquire(PLAYER, 4, copy, at(10)));
+        assertFalse(throttle.tryAcquire(PLAYER, 4, copy, at(20)));
+    }
+
+    @Test
+    void closingKeepsCoolingDownSlots() {
+        ClickThrottle throttle = new ClickThrottle();
+        SlotCooldowns cooldowns = new SlotCooldowns(9);
+        cooldowns.set(4, TimeUnit.MILLISECONDS.toNanos(250));
+
+        assertTrue(throttle.tryAcquire(PLAYER, 4, cooldowns, at(0)));
+        cooldowns.expire(PLAYER, at(100));
+        assertEquals(1, cooldowns.getPlayerCount());
+        assertFalse(throttle.tryAcquire(PLAYER, 4, cooldowns, at(150)));
+
+        cooldowns.expire(PLAYER, at(300));
+        assertEquals(0, cooldowns.getPlayerCount());
+    }
+
+    @Test
+    void playersNoLongerCoolingDownArePruned() {
+        ClickThrottle throttle = new ClickThrottle();
+        SlotCooldowns cooldowns = new SlotCooldowns(9);
+        cooldowns.set(4, TimeUnit.MILLISECONDS.toNanos(250));
+
+        for (int i = 0; i < 100; i++) {
+            UUID player = UUID.randomUUID();
+            assertTrue(throttle.tryAcquire(player, 4, cooldowns, at(i)));
+            cooldowns.expire(player, at(i + 100));
+        }
+        assertEquals(100, cooldowns.getPlayerCount());
+
+        // A player clicks every 10ms, so about 25 of them still cool down at any time
+        for (int i = 0; i < 400; i++) {
+            assertTrue(throttle.tryAcquire(UUID.randomUUID(), 4, cooldowns, at(1000 + i * 10)));
+        }
+        assertTrue(cooldowns.getPlayerCount() <= 50);
+
+        cooldowns.prune(at(10000));
+        assertEquals(0, cooldowns.getPlayerCount());
+    }
+
+}
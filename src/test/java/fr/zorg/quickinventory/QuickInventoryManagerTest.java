@@ -0,0 +1,124 @@
+package fr.zorg.quickinventory;
+
+import fr.zorg.quickinventory.headless.HeadlessServer;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuickInventoryManagerTest {
+
+    private static final QuickInventoryManager listener = new QuickInventoryManager();
+    private static long tick;
+
+    @BeforeAll
+    static void installServer() {
+        HeadlessServer.install();
+    }
+
+    @BeforeEach
+    void resetLeaks() {
+        QuickInventoryManager.resetLeaks();
+    }
+
+    /**
+     * Close the inventory of a player and hand the close event to the manager, which is not registered
+     */
+    private static void close(Player player) {
+        InventoryCloseEvent event = new InventoryCloseEvent(player.getOpenInventory());
+        HeadlessServer.closeSilently(player);
+        listener.onClose(event);
+    }
+
+    /**
+     * Advance the live slots and animations
+     */
+    private static void advance(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            QuickInventoryManager.advanceSlotTasks(++tick);
+        }
+    }
+
+    private static QuickInventory live(QuickInventory quickInventory, AtomicInteger evaluations) {
+        return quickInventory.setLiveSlot(4, () -> {
+            evaluations.incrementAndGet();
+            return null;
+        }, 1L);
+    }
+
+    private static boolean hasSession(Player player) {
+        return QuickInventoryManager.getSessions().stream().anyMatch(session -> session.getPlayerId().equals(player.getUniqueId()));
+    }
+
+    @Test
+    void setInventoryKeepsTheSessionOfTheOpenedMenu() {
+        AtomicInteger evaluations = new AtomicInteger();
+        QuickInventory layout = new QuickInventory("Layout", 3);
+        QuickInventory shop = live(new QuickInventory("Shop", 3).setInventory(layout), evaluations);
+        Player alice = HeadlessServer.player("alice");
+
+        shop.open(alice);
+        assertSame(layout, alice.getOpenInventory().getTopInventory().getHolder());
+        assertEquals(1, shop.getViewerCount());
+
+        QuickInventoryManager.sweep();
+        assertTrue(QuickInventoryManager.getLeaks().isEmpty());
+        assertTrue(hasSession(alice));
+        int before = evaluations.get();
+        advance(2);
+        assertEquals(before + 2, evaluations.get());
+
+        close(alice);
+        assertFalse(hasSession(alice));
+        assertEquals(0, shop.getViewerCount());
+        before = evaluations.get();
+        advance(2);
+        assertEquals(before, evaluations.get());
+    }
+
+    @Test
+    void sharedMenuRunsUntilItsLastTrackedViewerCloses() {
+        AtomicInteger evaluations = new AtomicInteger();
+        QuickInventory lobby = live(new QuickInventory("Lobby", 3), evaluations);
+        Player bob = HeadlessServer.player("bob");
+        Player carol = HeadlessServer.player("carol");
+        Player dave = HeadlessServer.player("dave");
+        Player erin = HeadlessServer.player("erin");
+        lobby.open(bob);
+        lobby.open(carol);
+        lobby.open(erin);
+        dave.openInventory(lobby.getInventory());
+        assertEquals(3, lobby.getViewerCount());
+
+        close(dave);
+        assertEquals(3, lobby.getViewerCount());
+
+        InventoryCloseEvent lateClose = new InventoryCloseEvent(erin.getOpenInventory());
+        HeadlessServer.closeSilently(erin);
+        QuickInventoryManager.sweep();
+        assertEquals(1L, QuickInventoryManager.getLeaks().get(QuickInventory.class));
+        listener.onClose(lateClose);
+        assertEquals(2, lobby.getViewerCount());
+
+        close(bob);
+        assertEquals(1, lobby.getViewerCount());
+        int before = evaluations.get();
+        advance(2);
+        assertEquals(before + 2, evaluations.get());
+
+        close(carol);
+        assertEquals(0, lobby.getViewerCount());
+        before = evaluations.get();
+        advance(2);
+        assertEquals(before, evaluations.get());
+    }
+
+}
@@ -0,0 +1,115 @@
+package fr.zorg.quickinventory;
+
+import org.bukkit.Material;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuickItemCatalogTest {
+
+    @TempDir
+    Path directory;
+
+    private static Map<String, QuickItemSpec> specs() {
+        Map<String, QuickItemSpec> specs = new LinkedHashMap<>();
+        specs.put("emerald", QuickItemSpec.of(Material.EMERALD).withName("§aEmerald").withLore("§ePrice: 20"));
+        specs.put("épée", QuickItemSpec.of(Material.DIAMOND).withAmount(2).withGlowing(true));
+        specs.put("arrow", QuickItemSpec.of(Material.ARROW).withAmount(64));
+        return specs;
+    }
+
+    @Test
+    void writtenSpecsReadBackInOrder() throws IOException {
+        Path file = this.directory.resolve("catalogs/shop.qic");
+        Map<String, QuickItemSpec> specs = specs();
+        QuickItemCatalog.writeSpecs(file, specs);
+        assertFalse(Files.exists(file.resolveSibling("shop.qic.tmp")));
+
+        QuickItemCatalog catalog = QuickItemCatalog.open(file);
+        assertEquals(3, catalog.size());
+        assertEquals(0, catalog.getDecodedCount());
+        assertEquals("épée", catalog.getKey(1));
+        assertEquals(2, catalog.indexOf("arrow"));
+        assertEquals(-1, catalog.indexOf("stone"));
+        assertNull(catalog.getSpec("stone"));
+
+        assertEquals(specs.get("épée"), catalog.getSpec("épée"));
+        assertEquals(1, catalog.getDecodedCount());
+        assertSame(catalog.getSpec(1), catalog.getSpec("épée"));
+        assertEquals(specs.get("emerald"), catalog.getSpec(0));
+        assertEquals(specs.get("arrow"), catalog.getSpec(2));
+        assertEquals(3, catalog.getDecodedCount());
+        assertThrows(IndexOutOfBoundsException.class, () -> catalog.getSpec(3));
+    }
+
+    @Test
+    void emptyCatalogOpens() throws IOException {
+        Path file = this.directory.resolve("empty.qic");
+        QuickItemCatalog.writeSpecs(file, new LinkedHashMap<>());
+
+        assertEquals(0, QuickItemCatalog.open(file).size());
+    }
+
+    @Test
+    void rewritingReplacesTheCatalog() throws IOException {
+        Path file = this.directory.resolve("shop.qic");
+        QuickItemCatalog.writeSpecs(file, specs());
+        Map<String, QuickItemSpec> specs = new LinkedHashMap<>();
+        specs.put("stone", QuickItemSpec.of(Material.STONE));
+        QuickItemCatalog.writeSpecs(file, specs);
+
+        QuickItemCatalog catalog = QuickItemCatalog.open(file);
+        assertEquals(1, catalog.size());
+        assertEquals(QuickItemSpec.of(Material.STONE), catalog.getSpec("stone"));
+    }
+
+    @Test
+    void otherFilesAreRejected() throws IOException {
+        Path file = this.directory.resolve("items.yml");
+        Files.write(file, "items:\n  stone: {}\n".getBytes());
+        IOException exception = assertThrows(IOException.class, () -> QuickItemCatalog.open(file));
+        assertTrue(exception.getMessage().contains("is not a QuickItem catalog"));
+
+        Path truncated = this.directory.resolve("truncated.qic");
+        Files.write(truncated, new byte[]{0x51, 0x49, 0x43, 0x41});
+        assertThrows(IOException.class, () -> QuickItemCatalog.open(truncated));
+    }
+
+    @Test
+    void otherVersionsAreRejected() throws IOException {
+        Path file = this.directory.resolve("shop.qic");
+        QuickItemCatalog.writeSpecs(file, specs());
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[7] = 2;
+        Files.write(file, bytes);
+
+        IOException exception = assertThrows(IOException.class, () -> QuickItemCatalog.open(file));
+        assertTrue(exception.getMessage().contains("version 2"));
+    }
+
+    @Test
+    void oversizedKeysAreRejectedBeforeWriting() {
+        Path file = this.directory.resolve("shop.qic");
+        Map<String, QuickItemSpec> specs = specs();
+        specs.put(String.join("", Collections.nCopies(0x8000, "é")), QuickItemSpec.of(Material.STONE));
+
+        IOException exception = assertThrows(IOException.class, () -> QuickItemCatalog.writeSpecs(file, specs));
+        assertTrue(exception.getMessage().contains("longer than 65535 bytes"));
+        assertFalse(Files.exists(file));
+        assertFalse(Files.exists(file.resolveSibling("shop.qic.tmp")));
+    }
+
+}
@@ -0,0 +1,109 @@
+package fr.zorg.quickinventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuickItemIndexTest {
+
+    private static QuickItemIndex shop() {
+        return new QuickItemIndex()
+                .add(3, "§bDiamond Sword", Arrays.asList("§7Sharpness V", "§ePrice: 500"))
+                .add(1, "§aEmerald", Collections.singletonList("§ePrice: 20"))
+                .add(7, "§6Golden Apple", Collections.singletonList("§7Regeneration"))
+                .add(5, "§fStone Sword", null);
+    }
+
+    private static int[] ids(QuickItemIndex.Result result) {
+        int[] ids = new int[result.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = result.get(i);
+        }
+        return ids;
+    }
+
+    @Test
+    void longTermsMatchAnywhere() {
+        QuickItemIndex index = shop();
+
+        assertArrayEquals(new int[]{3, 5}, ids(index.search("word")));
+        assertArrayEquals(new int[]{7}, ids(index.search("pple")));
+        assertArrayEquals(new int[]{1, 3}, ids(index.search("price")));
+        assertArrayEquals(new int[0], ids(index.search("bow")));
+    }
+
+    @Test
+    void shortTermsMatchTheStartOfAWord() {
+        QuickItemIndex index = shop();
+
+        assertArrayEquals(new int[]{3, 5}, ids(index.search("s")));
+        assertArrayEquals(new int[]{7}, ids(index.search("ap")));
+        assertArrayEquals(new int[0], ids(index.search("wo")));
+    }
+
+    @Test
+    void everyTermMustMatch() {
+        QuickItemIndex index = shop();
+
+        assertArrayEquals(new int[]{3}, ids(index.search("sword sharp")));
+        assertArrayEquals(new int[]{5}, ids(index.search("st sword")));
+        assertArrayEquals(new int[0], ids(index.search("emerald sword")));
+    }
+
+    @Test
+    void colorCodesAndCaseAreIgnored() {
+        QuickItemIndex index = shop();
+
+        assertArrayEquals(new int[]{3}, ids(index.search("§bDIAMOND")));
+        assertArrayEquals(new int[]{1}, ids(index.search("EmErAlD")));
+        assertArrayEquals(new int[0], ids(index.search("bdiamond")));
+    }
+
+    @Test
+    void blankQueryReturnsEveryItemInOrder() {
+        QuickItemIndex index = shop();
+
+        assertArrayEquals(new int[]{1, 3, 5, 7}, ids(index.search("")));
+        assertArrayEquals(new int[]{1, 3, 5, 7}, ids(index.search("  §7 ")));
+    }
+
+    @Test
+    void removeForgetsTheItem() {
+        QuickItemIndex index = shop();
+
+        assertTrue(index.remove(3));
+        assertFalse(index.remove(3));
+        assertEquals(3, index.size());
+        assertArrayEquals(new int[]{5}, ids(index.search("sword")));
+        assertArrayEquals(new int[0], ids(index.search("diamond")));
+    }
+
+    @Test
+    void addingAnIdAgainReplacesItsText() {
+        QuickItemIndex index = shop();
+
+        index.add(1, "§aEmerald Block", Collections.singletonList("§ePrice: 180"));
+        assertEquals(4, index.size());
+        assertArrayEquals(new int[]{1}, ids(index.search("block")));
+        assertArrayEquals(new int[0], ids(index.search("20")));
+
+        index.add(5, "§fCobblestone", null);
+        assertArrayEquals(new int[]{3}, ids(index.search("sword")));
+        assertArrayEquals(new int[]{5}, ids(index.search("cobble")));
+    }
+
+    @Test
+    void gramsAloneDoNotMakeAMatch() {
+        QuickItemIndex index = new QuickItemIndex().add(0, "§7Apps", Collections.singletonList("§7Pplx, Plex"));
+
+        assertArrayEquals(new int[0], ids(index.search("apple")));
+        assertArrayEquals(new int[]{0}, ids(index.search("plex")));
+    }
+
+}
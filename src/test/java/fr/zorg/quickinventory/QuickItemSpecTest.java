@@ -0,0 +1,146 @@
+package fr.zorg.quickinventory;
+
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemFlag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuickItemSpecTest {
+
+    private static byte[] write(QuickItemSpec spec) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        spec.write(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static QuickItemSpec read(byte[] bytes) throws IOException {
+        return QuickItemSpec.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    void writtenSpecReadsBackEqual() throws IOException {
+        QuickItemSpec spec = QuickItemSpec.of(Material.SKULL_ITEM)
+                .withAmount(16)
+                .withDurability(3)
+                .withName("§6Shop")
+                .withLore("§7Line one", "", "§eClick")
+                .withItemFlags(ItemFlag.HIDE_ENCHANTS, ItemFlag.HIDE_POTION_EFFECTS)
+                .withUnbreakable(true)
+                .withGlowing(true)
+                .withSkullTexture("eyJ0ZXh0dXJlcyI6e319");
+
+        QuickItemSpec read = read(write(spec));
+        assertEquals(spec, read);
+        assertEquals(16, read.getAmount());
+        assertEquals(3, read.getDurability());
+        assertEquals(Arrays.asList("§7Line one", "", "§eClick"), read.getLore());
+        assertTrue(read.hasItemFlag(ItemFlag.HIDE_POTION_EFFECTS));
+        assertFalse(read.hasItemFlag(ItemFlag.HIDE_ATTRIBUTES));
+        assertTrue(read.isUnbreakable());
+        assertTrue(read.isGlowing());
+    }
+
+    @Test
+    void plainSpecReadsBackWithoutMeta() throws IOException {
+        QuickItemSpec read = read(write(QuickItemSpec.of(Material.STONE)));
+
+        assertEquals(QuickItemSpec.of(Material.STONE), read);
+        assertNull(read.getName());
+        assertTrue(read.getLore().isEmpty());
+        assertTrue(read.getEnchants().isEmpty());
+        assertNull(read.getSkullTexture());
+    }
+
+    @Test
+    void binaryLayoutIsStable() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeUTF("DIAMOND");
+        output.writeByte(64);
+        output.writeShort(7);
+        output.writeBoolean(true);
+        output.writeUTF("§bGem");
+        output.writeShort(1);
+        output.writeUTF("§7Shiny");
+        output.writeByte(1);
+        output.writeUTF("DURABILITY");
+        output.writeShort(3);
+        output.writeByte(1 << ItemFlag.HIDE_ENCHANTS.ordinal());
+        output.writeByte(2);
+        output.writeBoolean(false);
+        byte[] expected = bytes.toByteArray();
+
+        QuickItemSpec spec = read(expected);
+        assertEquals(Material.DIAMOND, spec.getMaterial());
+        assertEquals(64, spec.getAmount());
+        assertEquals(7, spec.getDurability());
+        assertEquals("§bGem", spec.getName());
+        assertEquals(Collections.singletonList("§7Shiny"), spec.getLore());
+        assertEquals(Collections.singletonMap("DURABILITY", 3), spec.getEnchants());
+        assertTrue(spec.hasItemFlag(ItemFlag.HIDE_ENCHANTS));
+        assertFalse(spec.isUnbreakable());
+        assertTrue(spec.isGlowing());
+        assertNull(spec.getSkullTexture());
+        assertArrayEquals(expected, write(spec));
+    }
+
+    @Test
+    void unknownMaterialIsRejected() throws IOException {
+        byte[] bytes = write(QuickItemSpec.of(Material.STONE));
+        bytes[2] = 'X';
+
+        assertThrows(IOException.class, () -> read(bytes));
+    }
+
+    @Test
+    void readSpecsShareEqualLores() throws IOException {
+        byte[] bytes = write(QuickItemSpec.of(Material.PAPER).withLore("§7Shared"));
+
+        assertSame(read(bytes).getLore(), read(bytes).getLore());
+    }
+
+    @Test
+    void derivedSpecsKeepTheirLoreWithoutPooling() {
+        QuickItemSpec spec = QuickItemSpec.of(Material.GOLD_INGOT).withLore("§7Balance: 100");
+        QuickItemSpec.clearSharedPools();
+
+        QuickItemSpec derived = spec.withAmount(3).withDurability(1).withName("§6Gold").withGlowing(true);
+        assertSame(spec.getLore(), derived.getLore());
+        assertSame(spec.getEnchants(), derived.getEnchants());
+    }
+
+    @Test
+    void valuesOutOfTheirFieldAreRejected() {
+        assertThrows(IOException.class, () -> write(QuickItemSpec.of(Material.ARROW).withAmount(256)));
+        assertThrows(IOException.class, () -> write(QuickItemSpec.of(Material.ARROW).withAmount(-1)));
+        assertThrows(IOException.class, () -> write(QuickItemSpec.of(Material.PAPER).withLore(Collections.nCopies(0x10000, ""))));
+    }
+
+    @Test
+    void unknownEnchantmentIsRejected() throws IOException {
+        byte[] bytes = write(QuickItemSpec.of(Material.DIAMOND).withEnchant(Enchantment.DURABILITY, 3));
+        byte[] unknown = new String(bytes, StandardCharsets.ISO_8859_1).replace("DURABILITY", "DURABILITX").getBytes(StandardCharsets.ISO_8859_1);
+
+        assertEquals(Collections.singletonMap("DURABILITY", 3), read(bytes).getEnchants());
+        IOException exception = assertThrows(IOException.class, () -> read(unknown));
+        assertTrue(exception.getMessage().contains("DURABILITX"));
+    }
+
+}
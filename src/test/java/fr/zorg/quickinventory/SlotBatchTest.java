@@ -0,0 +1,89 @@
+package fr.zorg.quickinventory;
+
+import fr.zorg.quickinventory.headless.HeadlessServer;
+import org.bukkit.Material;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SlotBatchTest {
+
+    private final Map<String, Integer> writes = new ConcurrentHashMap<>();
+
+    @BeforeAll
+    static void installServer() {
+        HeadlessServer.install();
+    }
+
+    /**
+     * A chest counting the calls to its setItem and setContents
+     */
+    private Inventory chest() {
+        Inventory chest = HeadlessServer.inventory(null, InventoryType.CHEST, 27, "Chest");
+        return (Inventory) Proxy.newProxyInstance(SlotBatchTest.class.getClassLoader(), new Class<?>[]{Inventory.class}, (proxy, method, args) -> {
+            this.writes.merge(method.getName(), 1, Integer::sum);
+            try {
+                return method.invoke(chest, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    private int writes(String method) {
+        return this.writes.getOrDefault(method, 0);
+    }
+
+    @Test
+    void itemsOutsideOfATickAreWrittenAtOnce() {
+        Inventory chest = this.chest();
+        new SlotBatch(chest).setItem(3, new ItemStack(Material.STONE));
+
+        assertEquals(Material.STONE, chest.getItem(3).getType());
+        assertEquals(1, this.writes("setItem"));
+    }
+
+    @Test
+    void itemsOfATickAreWrittenOnce() {
+        Inventory chest = this.chest();
+        chest.setItem(0, new ItemStack(Material.ARROW));
+        chest.setItem(5, new ItemStack(Material.DIAMOND));
+        this.writes.clear();
+        SlotBatch batch = new SlotBatch(chest);
+
+        SlotBatch.startStaging();
+        batch.setItem(3, new ItemStack(Material.STONE));
+        batch.setItem(4, new ItemStack(Material.EMERALD));
+        batch.setItem(3, new ItemStack(Material.PAPER));
+        batch.setItem(5, null);
+        assertNull(chest.getItem(3));
+        SlotBatch.flushStaged();
+
+        assertEquals(0, this.writes("setItem"));
+        assertEquals(1, this.writes("setContents"));
+        assertEquals(Material.ARROW, chest.getItem(0).getType());
+        assertEquals(Material.PAPER, chest.getItem(3).getType());
+        assertEquals(Material.EMERALD, chest.getItem(4).getType());
+        assertNull(chest.getItem(5));
+
+        this.writes.clear();
+        SlotBatch.startStaging();
+        batch.setItem(4, new ItemStack(Material.GOLD_INGOT));
+        SlotBatch.flushStaged();
+        assertEquals(1, this.writes("setItem"));
+        assertEquals(0, this.writes("setContents"));
+        assertEquals(Material.PAPER, chest.getItem(3).getType());
+        assertEquals(Material.GOLD_INGOT, chest.getItem(4).getType());
+    }
+
+}
@@ -0,0 +1,43 @@
+package fr.zorg.quickinventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WeakInternerTest {
+
+    @Test
+    void equalValuesShareOneCopy() {
+        WeakInterner<List<String>> interner = new WeakInterner<>();
+        List<String> lore = new ArrayList<>(Arrays.asList("§7Price: 10", "§eClick to buy"));
+
+        List<String> pooled = interner.intern(lore, value -> Collections.unmodifiableList(new ArrayList<>(value)));
+        assertNotSame(lore, pooled);
+        assertEquals(lore, pooled);
+        assertSame(pooled, interner.intern(Arrays.asList("§7Price: 10", "§eClick to buy"), value -> value));
+        assertEquals(1, interner.size());
+
+        lore.set(0, "§7Price: 20");
+        assertEquals("§7Price: 10", pooled.get(0));
+        assertThrows(UnsupportedOperationException.class, () -> pooled.add("§cSold out"));
+    }
+
+    @Test
+    void clearForgetsPooledValues() {
+        WeakInterner<List<String>> interner = new WeakInterner<>();
+        List<String> first = interner.intern(Collections.singletonList("a"), value -> new ArrayList<>(value));
+        interner.clear();
+
+        assertEquals(0, interner.size());
+        assertNotSame(first, interner.intern(Collections.singletonList("a"), value -> new ArrayList<>(value)));
+    }
+
+}